@@ -18,6 +18,13 @@ android {
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
 
+        // Room writes each schema version here; commit the files, the migration tests read them
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments += mapOf("room.schemaLocation" to "$projectDir/schemas")
+            }
+        }
+
         // Read API key and Model ID from local.properties
         val localProperties = Properties()
         val localPropertiesFile = rootProject.file("local.properties")
@@ -46,10 +53,20 @@ android {
         }
     }
 
+    sourceSets {
+        // MigrationTestHelper loads the exported schemas as assets
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
+    }
+
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+
+    testOptions {
+        // JVM unit tests run the network classes, which log through android.util.Log
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -78,6 +95,18 @@ dependencies {
     // Room Database
     implementation("androidx.room:room-runtime:2.6.1")
     annotationProcessor("androidx.room:room-compiler:2.6.1")
+    implementation("androidx.room:room-paging:2.6.1")
+    androidTestImplementation("androidx.room:room-testing:2.6.1")
+
+    // Paging 3 (guava artifact provides the Java-friendly ListenableFuture APIs)
+    implementation("androidx.paging:paging-runtime:3.3.2")
+    implementation("androidx.paging:paging-guava:3.3.2")
+    implementation("com.google.guava:guava:33.3.1-android")
+    // ViewModelKt.getViewModelScope, for caching paged streams in the ViewModel
+    implementation("androidx.lifecycle:lifecycle-viewmodel-ktx:2.6.2")
+
+    // WorkManager (deferred background cache refreshes)
+    implementation("androidx.work:work-runtime:2.9.1")
 
     // Gson for JSON parsing
     implementation("com.google.code.gson:gson:2.11.0")
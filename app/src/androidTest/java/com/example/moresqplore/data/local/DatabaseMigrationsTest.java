@@ -0,0 +1,125 @@
+package com.example.moresqplore.data.local;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs {@link DatabaseMigrations} against the schemas Room exports to app/schemas, so hand-written
+ * DDL that drifts from the entities fails here instead of on upgrading installs.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationsTest {
+
+    private static final String TEST_DB = "migration-test";
+    private static final int LATEST_VERSION = 15;
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+    @Test
+    public void migrate4ToLatest_keepsCachedCities() throws IOException {
+        try (SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 4)) {
+            db.execSQL("INSERT INTO cities (name, id, description, coverImageUrl, latitude, longitude) "
+                    + "VALUES ('Fes', 'c1', 'Imperial city', NULL, 34.03, -5.0)");
+        }
+
+        try (SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, LATEST_VERSION, true,
+                DatabaseMigrations.ALL);
+             Cursor cursor = db.query("SELECT description, updated_at FROM cities WHERE name = 'Fes'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Imperial city", cursor.getString(0));
+            assertTrue(cursor.isNull(1));
+        }
+    }
+
+    @Test
+    public void migrate12To13To14ToLatest_stepByStep() throws IOException {
+        helper.createDatabase(TEST_DB, 12).close();
+        helper.runMigrationsAndValidate(TEST_DB, 13, true, DatabaseMigrations.MIGRATION_12_13).close();
+        helper.runMigrationsAndValidate(TEST_DB, 14, true, DatabaseMigrations.MIGRATION_13_14).close();
+        helper.runMigrationsAndValidate(TEST_DB, LATEST_VERSION, true, DatabaseMigrations.MIGRATION_14_15).close();
+    }
+
+    @Test
+    public void migrate14To15_dropsStaleFtsTokens() throws IOException {
+        try (SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 14)) {
+            db.execSQL("INSERT INTO places (id, name) VALUES ('p1', 'Bahia Palace')");
+            // What the old REPLACE-based insertPlaces did on every refresh
+            db.execSQL("INSERT OR REPLACE INTO places (id, name) VALUES ('p1', 'Majorelle Garden')");
+            assertEquals(1, countMatches(db, "bahia*"));
+        }
+
+        try (SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, 15, true,
+                DatabaseMigrations.MIGRATION_14_15)) {
+            assertEquals(0, countMatches(db, "bahia*"));
+            assertEquals(1, countMatches(db, "majorelle*"));
+        }
+    }
+
+    @Test
+    public void openWithRoom_afterMigratingFrom4() throws IOException {
+        helper.createDatabase(TEST_DB, 4).close();
+
+        // Room checks the migrated database against the schema compiled into the app
+        AppDatabase database = Room.databaseBuilder(
+                        InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                        AppDatabase.class, TEST_DB)
+                .addMigrations(DatabaseMigrations.ALL)
+                .build();
+        try {
+            database.getOpenHelper().getWritableDatabase();
+        } finally {
+            database.close();
+        }
+    }
+
+    @Test
+    public void openWithRoom_fromVersion3_recreatesTheDatabase() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        String name = "pre-schema-test";
+        context.deleteDatabase(name);
+        // Versions before 4 have no exported schema; any table will do
+        SQLiteDatabase old = context.openOrCreateDatabase(name, Context.MODE_PRIVATE, null);
+        old.execSQL("CREATE TABLE cities (name TEXT NOT NULL PRIMARY KEY)");
+        old.execSQL("INSERT INTO cities (name) VALUES ('Fes')");
+        old.setVersion(3);
+        old.close();
+
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, name)
+                .addMigrations(DatabaseMigrations.ALL)
+                .fallbackToDestructiveMigrationFrom(DatabaseMigrations.DEVELOPMENT_VERSIONS)
+                .build();
+        try (Cursor cursor = database.getOpenHelper().getWritableDatabase()
+                .query("SELECT COUNT(*) FROM cities")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getInt(0));
+        } finally {
+            database.close();
+            context.deleteDatabase(name);
+        }
+    }
+
+    private static int countMatches(SupportSQLiteDatabase db, String match) {
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM places_fts WHERE places_fts MATCH ?",
+                new Object[]{match})) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+}
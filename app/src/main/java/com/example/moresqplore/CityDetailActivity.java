@@ -1,8 +1,6 @@
 package com.example.moresqplore;
 
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.animation.Animation;
@@ -25,7 +23,6 @@ public class CityDetailActivity extends AppCompatActivity {
     private TextView tvCityName;
     private TextView tvCityDescription;
     private LinearLayout timelineContainer;
-    private Handler mainHandler = new Handler(Looper.getMainLooper());
 
     private ImageView imgCityHero;
 
@@ -34,7 +31,7 @@ public class CityDetailActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_city_details);
 
-        cityRepository = new CityRepository(this);
+        cityRepository = CityRepository.getInstance(this);
 
         // 1. Get Data from Intent
         String cityName = getIntent().getStringExtra("CITY_NAME");
@@ -140,82 +137,80 @@ public class CityDetailActivity extends AppCompatActivity {
     private void loadCityData(String cityName) {
         tvCityDescription.setText("Loading city details...");
         
-        cityRepository.getCityData(cityName, new CityRepository.CityCallback() {
-            @Override
-            public void onSuccess(City city) {
-                currentCity = city; // Store for usage in click listeners
-                // Ensure UI updates happen on Main Thread
-                mainHandler.post(() -> {
-                    tvCityDescription.setText(city.getDescription());
-                    
-                    // Load Hero Image
-                    // Load Hero Image (Local Drawables)
-                    switch (city.getName()) {
-                        case "Casablanca":
-                            imgCityHero.setImageResource(R.drawable.casablanca);
-                            break;
-                        case "Marrakech":
-                            imgCityHero.setImageResource(R.drawable.marrakech);
-                            break;
-                        case "Tanger":
-                            imgCityHero.setImageResource(R.drawable.tanger);
-                            break;
-                        case "Rabat":
-                            imgCityHero.setImageResource(R.drawable.rabat);
-                            break;
-                        case "Agadir":
-                            imgCityHero.setImageResource(R.drawable.agadir);
-                            break;
-                        case "Fez":
-                            imgCityHero.setImageResource(R.drawable.fez);
-                            break;
-                        case "Chefchaouen":
-                            imgCityHero.setImageResource(R.drawable.chefchaouen);
-                            break;
-                         case "Essaouira":
-                            imgCityHero.setImageResource(R.drawable.essaouira);
-                            break;
-                        default:
-                             // Try to load from URL if not in local list, or fallback
-                             if (city.getCoverImageUrl() != null && !city.getCoverImageUrl().isEmpty()) {
-                                // Create a GlideUrl with headers to avoid 429 errors
-                                com.bumptech.glide.load.model.GlideUrl glideUrl = new com.bumptech.glide.load.model.GlideUrl(
-                                    city.getCoverImageUrl(), 
-                                    new com.bumptech.glide.load.model.LazyHeaders.Builder()
-                                        .addHeader("User-Agent", "MoresqploreApp/1.0 (Android; +https://github.com/Eljihad404/moresqplore)")
-                                        .build()
-                                );
-
-                                com.bumptech.glide.Glide.with(CityDetailActivity.this)
-                                    .load(glideUrl)
-                                    .placeholder(android.R.drawable.ic_menu_gallery)
-                                    .error(android.R.drawable.ic_menu_report_image)
-                                    .centerCrop()
-                                    .into(imgCityHero);
-                             } else {
-                                imgCityHero.setImageResource(android.R.drawable.ic_menu_gallery);
-                             }
-                    }
-                    
-                    populateTimeline(city.getHistoryEvents());
-                });
+        // Rendering follows Room: one bind per stored change, on the main thread
+        cityRepository.observeCity(cityName).observe(this, city -> {
+            if (city != null) {
+                bindCity(city);
             }
+        });
+
+        cityRepository.loadCity(cityName, e -> {
+            tvCityDescription.setText("Failed to load details. Please check your connection.");
+            Toast.makeText(CityDetailActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
 
-            @Override
-            public void onError(Exception e) {
-                mainHandler.post(() -> {
-                    tvCityDescription.setText("Failed to load details. Please check your connection.");
-                    Toast.makeText(CityDetailActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    
-                    // Fallback to mock data if needed
-                    if ("Casablanca".equals(cityName)) {
-                        tvCityDescription.setText("Casablanca is the economic lung of the Kingdom... (Offline Fallback)");
-                    }
-                });
+            // Fallback to mock data if needed
+            if ("Casablanca".equals(cityName)) {
+                tvCityDescription.setText("Casablanca is the economic lung of the Kingdom... (Offline Fallback)");
             }
         });
     }
 
+    private void bindCity(City city) {
+        currentCity = city; // Store for usage in click listeners
+        tvCityDescription.setText(city.getDescription());
+        
+        // Load Hero Image
+        // Load Hero Image (Local Drawables)
+        switch (city.getName()) {
+            case "Casablanca":
+                imgCityHero.setImageResource(R.drawable.casablanca);
+                break;
+            case "Marrakech":
+                imgCityHero.setImageResource(R.drawable.marrakech);
+                break;
+            case "Tanger":
+                imgCityHero.setImageResource(R.drawable.tanger);
+                break;
+            case "Rabat":
+                imgCityHero.setImageResource(R.drawable.rabat);
+                break;
+            case "Agadir":
+                imgCityHero.setImageResource(R.drawable.agadir);
+                break;
+            case "Fez":
+                imgCityHero.setImageResource(R.drawable.fez);
+                break;
+            case "Chefchaouen":
+                imgCityHero.setImageResource(R.drawable.chefchaouen);
+                break;
+             case "Essaouira":
+                imgCityHero.setImageResource(R.drawable.essaouira);
+                break;
+            default:
+                 // Try to load from URL if not in local list, or fallback
+                 if (city.getCoverImageUrl() != null && !city.getCoverImageUrl().isEmpty()) {
+                    // Create a GlideUrl with headers to avoid 429 errors
+                    com.bumptech.glide.load.model.GlideUrl glideUrl = new com.bumptech.glide.load.model.GlideUrl(
+                        city.getCoverImageUrl(), 
+                        new com.bumptech.glide.load.model.LazyHeaders.Builder()
+                            .addHeader("User-Agent", "MoresqploreApp/1.0 (Android; +https://github.com/Eljihad404/moresqplore)")
+                            .build()
+                    );
+
+                    com.bumptech.glide.Glide.with(CityDetailActivity.this)
+                        .load(glideUrl)
+                        .placeholder(android.R.drawable.ic_menu_gallery)
+                        .error(android.R.drawable.ic_menu_report_image)
+                        .centerCrop()
+                        .into(imgCityHero);
+                 } else {
+                    imgCityHero.setImageResource(android.R.drawable.ic_menu_gallery);
+                 }
+        }
+        
+        populateTimeline(city.getHistoryEvents());
+    }
+
     private void populateTimeline(List<HistoryEvent> events) {
         timelineContainer.removeAllViews();
         if (events == null || events.isEmpty()) return;
@@ -235,7 +230,7 @@ public class CityDetailActivity extends AppCompatActivity {
         androidx.recyclerview.widget.RecyclerView recyclerPlaces = findViewById(R.id.recyclerPlaces);
         if (recyclerPlaces != null) {
             // Setup Adapter
-            com.example.moresqplore.ui.adapter.PlaceAdapter adapter = new com.example.moresqplore.ui.adapter.PlaceAdapter(place -> {
+            com.example.moresqplore.ui.adapter.PagedPlaceAdapter adapter = new com.example.moresqplore.ui.adapter.PagedPlaceAdapter(place -> {
                 // Navigate to map with place coordinates
                 Intent intent = new Intent(CityDetailActivity.this, RoadmapActivity.class);
                 intent.putExtra("CITY_NAME", place.getCity());
@@ -251,17 +246,12 @@ public class CityDetailActivity extends AppCompatActivity {
             });
             recyclerPlaces.setAdapter(adapter);
 
-            // Fetch Data
-            com.example.moresqplore.data.repository.PlaceRepository.getInstance()
-                .fetchPlacesByCity(cityName)
-                .observe(this, places -> {
-                    if (places != null && !places.isEmpty()) {
-                        adapter.setPlaces(places);
-                    } else {
-                        // Maybe hide the list or show empty state?
-                        // For now, let's just log or ignore
-                    }
-                });
+            // Fetch Data (paged: first page from Room/Supabase, more as the list scrolls)
+            androidx.paging.PagingLiveData.cachedIn(
+                    com.example.moresqplore.data.repository.PlaceRepository.getInstance()
+                            .getPagedPlacesByCity(cityName),
+                    getLifecycle())
+                .observe(this, pagingData -> adapter.submitData(getLifecycle(), pagingData));
         }
     }
 }
@@ -4,6 +4,9 @@ import android.app.Application;
 import android.util.Log;
 
 import com.example.moresqplore.data.network.GeminiApiClient;
+import com.example.moresqplore.data.network.NetworkModule;
+import com.example.moresqplore.data.repository.GeminiChatRepository;
+import com.example.moresqplore.data.repository.PlaceRepository;
 
 /**
  * Application class for Atlas Explorer app.
@@ -17,9 +20,18 @@ public class MoresQploreApplication extends Application {
     public void onCreate() {
         super.onCreate();
 
+        // Shared HTTP stack needs the cache dir before any client is built
+        NetworkModule.initialize(this);
+
         // Initialize Gemini API Client
         initializeGeminiClient();
 
+        // Give the place repository access to its local cache
+        PlaceRepository.initialize(this);
+
+        // Chat conversations and cached quick-action answers live in Room
+        GeminiChatRepository.initialize(this);
+
         Log.d(TAG, "Atlas Explorer app initialized");
     }
 
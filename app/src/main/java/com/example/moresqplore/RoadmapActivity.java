@@ -31,11 +31,10 @@ import com.google.android.gms.location.LocationServices;
 // Routing API
 import com.example.moresqplore.data.api.RouteService;
 import com.example.moresqplore.data.model.RouteResponse;
+import com.example.moresqplore.data.network.NetworkModule;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -46,7 +45,6 @@ public class RoadmapActivity extends AppCompatActivity implements OnMapReadyCall
     private static final String TAG = "RoadmapActivity";
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 100;
     private static final String API_KEY = "gtDFpjWXQSNku7Z8CvqQ";
-    private static final String OSRM_BASE_URL = "https://router.project-osrm.org/";
     
     private MapView mapView;
     private MapLibreMap mapLibreMap;
@@ -109,11 +107,7 @@ public class RoadmapActivity extends AppCompatActivity implements OnMapReadyCall
     }
     
     private void setupRouteService() {
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(OSRM_BASE_URL)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-        routeService = retrofit.create(RouteService.class);
+        routeService = NetworkModule.getOsrmRetrofit().create(RouteService.class);
     }
     
     private void setupMyLocationButton() {
@@ -170,7 +164,7 @@ public class RoadmapActivity extends AppCompatActivity implements OnMapReadyCall
         Toast.makeText(this, "Calculating most efficient route...", Toast.LENGTH_SHORT).show();
 
         // Get all places from the map
-        List<com.example.moresqplore.data.model.Place> placesToVisit = new ArrayList<>(markerPlaceMap.values());
+        List<com.example.moresqplore.data.model.PlaceSummary> placesToVisit = new ArrayList<>(markerPlaceMap.values());
         
         // Run optimization (Nearest Neighbor)
         List<LatLng> orderedPoints = optimizeRoute(currentLocation, placesToVisit);
@@ -182,59 +176,21 @@ public class RoadmapActivity extends AppCompatActivity implements OnMapReadyCall
     /**
      * Optimizes the route using Nearest Neighbor algorithm.
      * Starts at user location, finds nearest place, moves there, repeats.
+     * Nearest lookups go through a spatial index (see PlaceRepository.optimizeSummaryTrajectory).
      */
-    private List<LatLng> optimizeRoute(LatLng start, List<com.example.moresqplore.data.model.Place> places) {
+    private List<LatLng> optimizeRoute(LatLng start, List<com.example.moresqplore.data.model.PlaceSummary> places) {
         List<LatLng> path = new ArrayList<>();
         path.add(start);
 
-        List<com.example.moresqplore.data.model.Place> unvisited = new ArrayList<>(places);
-        LatLng currentPos = start;
-
-        while (!unvisited.isEmpty()) {
-            com.example.moresqplore.data.model.Place nearestPlace = null;
-            double minDistance = Double.MAX_VALUE;
-
-            for (com.example.moresqplore.data.model.Place place : unvisited) {
-                if (place.getLocation() == null) continue;
-                
-                double dist = calculateDistance(
-                        currentPos.getLatitude(), currentPos.getLongitude(),
-                        place.getLocation().getLatitude(), place.getLocation().getLongitude());
-                
-                if (dist < minDistance) {
-                    minDistance = dist;
-                    nearestPlace = place;
-                }
-            }
-
-            if (nearestPlace != null) {
-                unvisited.remove(nearestPlace);
-                LatLng placeLoc = new LatLng(nearestPlace.getLocation().getLatitude(), nearestPlace.getLocation().getLongitude());
-                path.add(placeLoc);
-                currentPos = placeLoc;
-            } else {
-                // Should not happen unless places have null location
-                break;
-            }
+        List<com.example.moresqplore.data.model.PlaceSummary> ordered = com.example.moresqplore.data.repository.PlaceRepository.getInstance()
+                .optimizeSummaryTrajectory(places, start.getLatitude(), start.getLongitude());
+        for (com.example.moresqplore.data.model.PlaceSummary place : ordered) {
+            path.add(new LatLng(place.getLatitude(), place.getLongitude()));
         }
         
         return path;
     }
 
-    /**
-     * Calculates distance between two points in kilometers.
-     */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        double earthRadius = 6371; // km
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return earthRadius * c;
-    }
-
     private void getRouteForPoints(List<LatLng> points) {
         if (points.size() < 2) return;
 
@@ -417,7 +373,8 @@ public class RoadmapActivity extends AppCompatActivity implements OnMapReadyCall
                                     .position(latLng)
                                     .title(place.getName())
                                     .snippet(place.getCategory())); // Show category in snippet
-                                markerPlaceMap.put(marker.getId(), place);
+                                markerPlaceMap.put(marker.getId(),
+                                        com.example.moresqplore.data.model.PlaceSummary.fromPlace(place));
                             }
                         }
                         
@@ -489,20 +446,27 @@ public class RoadmapActivity extends AppCompatActivity implements OnMapReadyCall
         });
     }
 
-    // Map to store Place objects for markers
-    private java.util.Map<Long, com.example.moresqplore.data.model.Place> markerPlaceMap = new java.util.HashMap<>();
+    // Map to store place summaries for markers; full details are loaded on click
+    private java.util.Map<Long, com.example.moresqplore.data.model.PlaceSummary> markerPlaceMap = new java.util.HashMap<>();
 
     private void loadCityRoute(MapLibreMap map, String cityName) {
         com.example.moresqplore.data.repository.PlaceRepository.getInstance()
-                .fetchPlacesByCity(cityName)
+                .fetchPlaceSummariesByCity(cityName)
                 .observe(this, places -> {
                     if (places != null && !places.isEmpty()) {
                         List<LatLng> points = new ArrayList<>();
+                        // Cached list may be followed by a refreshed one
+                        for (Long markerId : markerPlaceMap.keySet()) {
+                            org.maplibre.android.annotations.Annotation old = map.getAnnotation(markerId);
+                            if (old != null) {
+                                map.removeAnnotation(old);
+                            }
+                        }
                         markerPlaceMap.clear(); // Clear old markers
                         
-                        for (com.example.moresqplore.data.model.Place place : places) {
-                            if (place.getLocation() != null) {
-                                LatLng latLng = new LatLng(place.getLocation().getLatitude(), place.getLocation().getLongitude());
+                        for (com.example.moresqplore.data.model.PlaceSummary place : places) {
+                            if (place.hasLocation()) {
+                                LatLng latLng = new LatLng(place.getLatitude(), place.getLongitude());
                                 points.add(latLng);
                                 org.maplibre.android.annotations.Marker marker = map.addMarker(new MarkerOptions().position(latLng).title(place.getName()));
                                 markerPlaceMap.put(marker.getId(), place);
@@ -516,14 +480,31 @@ public class RoadmapActivity extends AppCompatActivity implements OnMapReadyCall
                 });
                 
         map.setOnMarkerClickListener(marker -> {
-            com.example.moresqplore.data.model.Place place = markerPlaceMap.get(marker.getId());
-            if (place != null) {
-                showPlaceBottomSheet(place);
+            com.example.moresqplore.data.model.PlaceSummary summary = markerPlaceMap.get(marker.getId());
+            if (summary != null) {
+                showPlaceDetails(summary.getId());
                 return true;
             }
             return false;
         });
     }
+
+    /**
+     * Loads the full place behind a marker and shows it once.
+     */
+    private void showPlaceDetails(String placeId) {
+        androidx.lifecycle.LiveData<com.example.moresqplore.data.model.Place> details =
+                com.example.moresqplore.data.repository.PlaceRepository.getInstance().fetchPlaceById(placeId);
+        details.observe(this, new androidx.lifecycle.Observer<com.example.moresqplore.data.model.Place>() {
+            @Override
+            public void onChanged(com.example.moresqplore.data.model.Place place) {
+                if (place != null) {
+                    details.removeObserver(this);
+                    showPlaceBottomSheet(place);
+                }
+            }
+        });
+    }
     
     private void showPlaceBottomSheet(com.example.moresqplore.data.model.Place place) {
         this.selectedPlace = place;
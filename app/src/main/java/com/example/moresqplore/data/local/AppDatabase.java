@@ -6,21 +6,36 @@ import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
 import com.example.moresqplore.data.model.City;
+import java.util.concurrent.Executors;
 
-@Database(entities = {City.class}, version = 4, exportSchema = false)
+@Database(entities = {City.class, PlaceEntity.class, PlaceFts.class, CacheMetadata.class, SyncCursor.class,
+        HistoryEventEntity.class, GalleryImageEntity.class, GeminiResponseEntity.class,
+        ChatMessageEntity.class}, version = 15, exportSchema = true)
 @TypeConverters({DataConverters.class})
 public abstract class AppDatabase extends RoomDatabase {
     public abstract CityDao cityDao();
+    public abstract PlaceDao placeDao();
+    public abstract CacheMetadataDao cacheMetadataDao();
+    public abstract SyncCursorDao syncCursorDao();
+    public abstract GeminiResponseDao geminiResponseDao();
+    public abstract ChatMessageDao chatMessageDao();
 
     private static volatile AppDatabase INSTANCE;
 
+    // WAL lets these readers run while a write is in progress; writes are serialized on one thread
+    private static final int QUERY_THREADS = 4;
+
     public static AppDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
                     INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
                             AppDatabase.class, "city_database")
-                            .fallbackToDestructiveMigration()
+                            .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                            .setQueryExecutor(Executors.newFixedThreadPool(QUERY_THREADS))
+                            .setTransactionExecutor(Executors.newSingleThreadExecutor())
+                            .addMigrations(DatabaseMigrations.ALL)
+                            .fallbackToDestructiveMigrationFrom(DatabaseMigrations.DEVELOPMENT_VERSIONS)
                             .build();
                 }
             }
@@ -0,0 +1,41 @@
+package com.example.moresqplore.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Records when a remote query was last answered from the network,
+ * so repositories can decide whether a cached result is still fresh.
+ */
+@Entity(tableName = "cache_metadata")
+public class CacheMetadata {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "query_key")
+    private String queryKey = "";
+
+    @ColumnInfo(name = "last_fetched_at")
+    private long lastFetchedAt;
+
+    public CacheMetadata() {}
+
+    @androidx.room.Ignore
+    public CacheMetadata(@NonNull String queryKey, long lastFetchedAt) {
+        this.queryKey = queryKey;
+        this.lastFetchedAt = lastFetchedAt;
+    }
+
+    @NonNull
+    public String getQueryKey() { return queryKey; }
+    public void setQueryKey(@NonNull String queryKey) { this.queryKey = queryKey; }
+
+    public long getLastFetchedAt() { return lastFetchedAt; }
+    public void setLastFetchedAt(long lastFetchedAt) { this.lastFetchedAt = lastFetchedAt; }
+
+    public boolean isFresh(long maxAgeMs, long now) {
+        return now - lastFetchedAt < maxAgeMs;
+    }
+}
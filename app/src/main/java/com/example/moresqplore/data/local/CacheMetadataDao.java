@@ -0,0 +1,19 @@
+package com.example.moresqplore.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao
+public interface CacheMetadataDao {
+    @Query("SELECT * FROM cache_metadata WHERE query_key = :queryKey LIMIT 1")
+    CacheMetadata get(String queryKey);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(CacheMetadata metadata);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<CacheMetadata> metadata);
+}
@@ -0,0 +1,36 @@
+package com.example.moresqplore.data.local;
+
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Upsert;
+import java.util.List;
+
+@Dao
+public interface ChatMessageDao {
+    // Newest first, for a reverse-laid-out chat list; rowid breaks ties within the same millisecond
+    @Query("SELECT * FROM chat_messages WHERE conversation_id = :conversationId ORDER BY timestamp DESC, rowid DESC")
+    PagingSource<Integer, ChatMessageEntity> pagingSource(String conversationId);
+
+    @Query("SELECT * FROM chat_messages WHERE conversation_id = :conversationId "
+            + "ORDER BY timestamp DESC, rowid DESC LIMIT :limit")
+    List<ChatMessageEntity> getLatest(String conversationId, int limit);
+
+    @Query("SELECT conversation_id FROM chat_messages ORDER BY timestamp DESC, rowid DESC LIMIT 1")
+    String getLatestConversationId();
+
+    // Upsert rather than REPLACE: a streamed answer is rewritten in place and keeps its rowid
+    @Upsert
+    void upsert(ChatMessageEntity message);
+
+    @Upsert
+    void upsertAll(List<ChatMessageEntity> messages);
+
+    @Query("DELETE FROM chat_messages WHERE conversation_id = :conversationId")
+    void deleteConversation(String conversationId);
+
+    // Keeps the conversations with the most recent activity
+    @Query("DELETE FROM chat_messages WHERE conversation_id NOT IN (SELECT conversation_id FROM chat_messages "
+            + "GROUP BY conversation_id ORDER BY MAX(timestamp) DESC LIMIT :maxConversations)")
+    int trimConversations(int maxConversations);
+}
@@ -0,0 +1,104 @@
+package com.example.moresqplore.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.example.moresqplore.data.model.ChatMessage;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Room row for a stored {@link ChatMessage}; the chat screen pages through these per conversation.
+ */
+@Entity(tableName = "chat_messages",
+        indices = {@Index({"conversation_id", "timestamp"})})
+public class ChatMessageEntity {
+
+    @PrimaryKey
+    @NonNull
+    private String id = "";
+
+    @NonNull
+    @ColumnInfo(name = "conversation_id")
+    private String conversationId = "";
+
+    private String role;
+    private String content;
+
+    @ColumnInfo(name = "context_type")
+    private String contextType;
+
+    @ColumnInfo(name = "context_data")
+    private String contextData;
+
+    private String language;
+
+    // Epoch millis
+    private long timestamp;
+
+    public ChatMessageEntity() {}
+
+    public static ChatMessageEntity fromMessage(ChatMessage message) {
+        ChatMessageEntity entity = new ChatMessageEntity();
+        entity.id = message.getId();
+        entity.conversationId = message.getConversationId() != null ? message.getConversationId() : "";
+        entity.role = message.getRole();
+        entity.content = message.getContent();
+        entity.contextType = message.getContextType();
+        entity.contextData = message.getContextData();
+        entity.language = message.getLanguage();
+        entity.timestamp = message.getTimestamp() != null ? message.getTimestamp().getTime() : System.currentTimeMillis();
+        return entity;
+    }
+
+    public ChatMessage toMessage() {
+        ChatMessage message = new ChatMessage(role, content);
+        message.setId(id);
+        message.setConversationId(conversationId);
+        message.setContextType(contextType);
+        message.setContextData(contextData);
+        message.setLanguage(language);
+        message.setTimestamp(new Date(timestamp));
+        return message;
+    }
+
+    public static List<ChatMessage> toMessages(List<ChatMessageEntity> entities) {
+        List<ChatMessage> messages = new ArrayList<>(entities != null ? entities.size() : 0);
+        if (entities != null) {
+            for (ChatMessageEntity entity : entities) {
+                messages.add(entity.toMessage());
+            }
+        }
+        return messages;
+    }
+
+    // Getters and Setters (required by Room)
+    @NonNull
+    public String getId() { return id; }
+    public void setId(@NonNull String id) { this.id = id; }
+
+    @NonNull
+    public String getConversationId() { return conversationId; }
+    public void setConversationId(@NonNull String conversationId) { this.conversationId = conversationId; }
+
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public String getContextType() { return contextType; }
+    public void setContextType(String contextType) { this.contextType = contextType; }
+
+    public String getContextData() { return contextData; }
+    public void setContextData(String contextData) { this.contextData = contextData; }
+
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+}
@@ -1,16 +1,63 @@
 package com.example.moresqplore.data.local;
 
+import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Insert;
-import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Upsert;
 import com.example.moresqplore.data.model.City;
+import java.util.List;
 
 @Dao
 public interface CityDao {
     @Query("SELECT * FROM cities WHERE name = :cityName LIMIT 1")
     City getCity(String cityName);
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
-    void insertCity(City city);
+    // Upsert rather than REPLACE: a REPLACE deletes the row first and would cascade to the timeline and gallery
+    @Upsert
+    void upsertCity(City city);
+
+    @Query("DELETE FROM city_history WHERE city_name = :cityName")
+    void deleteHistory(String cityName);
+
+    @Query("DELETE FROM city_gallery WHERE city_name = :cityName")
+    void deleteGallery(String cityName);
+
+    @Insert
+    void insertHistory(List<HistoryEventEntity> events);
+
+    @Insert
+    void insertGallery(List<GalleryImageEntity> images);
+
+    /**
+     * Loads a city with its timeline and gallery in one read transaction, or null if not cached.
+     */
+    @Transaction
+    @Query("SELECT * FROM cities WHERE name = :cityName LIMIT 1")
+    CityWithDetails getCityWithDetails(String cityName);
+
+    /**
+     * Same as {@link #getCityWithDetails}, re-emitted whenever the city, its timeline or its gallery change.
+     */
+    @Transaction
+    @Query("SELECT * FROM cities WHERE name = :cityName LIMIT 1")
+    LiveData<CityWithDetails> observeCityWithDetails(String cityName);
+
+    /**
+     * Stores a city with its timeline and gallery atomically.
+     * A null list leaves the cached rows of that part untouched (e.g. after a failed fetch).
+     */
+    @Transaction
+    default void saveCityWithDetails(City city) {
+        upsertCity(city);
+        if (city.getHistoryEvents() != null) {
+            deleteHistory(city.getName());
+            insertHistory(HistoryEventEntity.fromEvents(city.getName(), city.getHistoryEvents()));
+        }
+        if (city.getGallery() != null) {
+            deleteGallery(city.getName());
+            insertGallery(GalleryImageEntity.fromImages(city.getName(), city.getGallery()));
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package com.example.moresqplore.data.local;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+import com.example.moresqplore.data.model.City;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A cached city row together with its timeline and gallery rows, as read by Room.
+ */
+public class CityWithDetails {
+
+    @Embedded
+    public City city;
+
+    @Relation(parentColumn = "name", entityColumn = "city_name")
+    public List<HistoryEventEntity> history;
+
+    @Relation(parentColumn = "name", entityColumn = "city_name")
+    public List<GalleryImageEntity> gallery;
+
+    /**
+     * The city with its lists attached in server order.
+     */
+    public City toCity() {
+        List<HistoryEventEntity> events = new ArrayList<>(history);
+        events.sort(Comparator.comparingInt(HistoryEventEntity::getPosition));
+        List<GalleryImageEntity> images = new ArrayList<>(gallery);
+        images.sort(Comparator.comparingInt(GalleryImageEntity::getPosition));
+
+        city.setHistoryEvents(HistoryEventEntity.toEvents(events));
+        city.setGallery(GalleryImageEntity.toImages(images));
+        return city;
+    }
+}
@@ -38,4 +38,18 @@ public class DataConverters {
     public static String fromGalleryList(List<com.example.moresqplore.data.model.CityGalleryImage> list) {
         return gson.toJson(list);
     }
+
+    @TypeConverter
+    public static List<String> fromTagsString(String value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        Type listType = new TypeToken<List<String>>() {}.getType();
+        return gson.fromJson(value, listType);
+    }
+
+    @TypeConverter
+    public static String fromTagsList(List<String> list) {
+        return gson.toJson(list);
+    }
 }
@@ -0,0 +1,131 @@
+package com.example.moresqplore.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Schema migrations for {@link AppDatabase}, so cached content survives app updates.
+ *
+ * Version 4 is the last released schema (cities only). Versions 1 to 3 predate the
+ * exported schemas and 5 to 11 only ever existed in development builds, so both are
+ * dropped instead of migrated, as the destructive fallback always did for them. Add one
+ * Migration per future version bump and register it in {@link #ALL}; the DDL must
+ * match the schema Room exports to app/schemas, which DatabaseMigrationsTest checks.
+ */
+public final class DatabaseMigrations {
+
+    private DatabaseMigrations() {
+        // Static access only
+    }
+
+    /**
+     * Versions with no migration path (no exported schema, or never released); Room
+     * recreates the database from them.
+     */
+    static final int[] DEVELOPMENT_VERSIONS = {1, 2, 3, 5, 6, 7, 8, 9, 10, 11};
+
+    /**
+     * 4 -> 12: place cache with its FTS index, cache metadata, sync cursors,
+     * city timeline and gallery tables, and updated_at on cities.
+     */
+    static final Migration MIGRATION_4_12 = new Migration(4, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `cities` ADD COLUMN `updated_at` TEXT");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `places` (`id` TEXT NOT NULL, `name` TEXT, `description` TEXT, "
+                    + "`category` TEXT, `city` TEXT, `address` TEXT, `image_url` TEXT, `thumbnail_url` TEXT, "
+                    + "`rating` REAL, `review_count` INTEGER, `opening_hours` TEXT, `ticket_price` REAL, "
+                    + "`is_free_entry` INTEGER, `website` TEXT, `phone_number` TEXT, `latitude` REAL, "
+                    + "`longitude` REAL, `tags` TEXT, `view_count` INTEGER, `estimated_duration` INTEGER, "
+                    + "`updated_at` TEXT, `cached_at` INTEGER NOT NULL DEFAULT 0, "
+                    + "`has_details` INTEGER NOT NULL DEFAULT 0, PRIMARY KEY(`id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_places_city` ON `places` (`city`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_places_rating` ON `places` (`rating`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_places_category_rating` ON `places` (`category`, `rating`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_places_city_category` ON `places` (`city`, `category`)");
+
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `places_fts` USING FTS4(`name` TEXT, `city` TEXT, "
+                    + "`category` TEXT, `tags` TEXT, tokenize=unicode61 `remove_diacritics=1`, content=`places`)");
+            createPlacesFtsTriggers(db);
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `cache_metadata` (`query_key` TEXT NOT NULL, "
+                    + "`last_fetched_at` INTEGER NOT NULL, PRIMARY KEY(`query_key`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sync_cursors` (`scope` TEXT NOT NULL, "
+                    + "`max_updated_at` TEXT, `etag` TEXT, PRIMARY KEY(`scope`))");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `city_history` (`rowId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`city_name` TEXT NOT NULL, `position` INTEGER NOT NULL, `year` TEXT, `event_title` TEXT, "
+                    + "`event_description` TEXT, FOREIGN KEY(`city_name`) REFERENCES `cities`(`name`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_city_history_city_name_position` "
+                    + "ON `city_history` (`city_name`, `position`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `city_gallery` (`rowId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`city_name` TEXT NOT NULL, `position` INTEGER NOT NULL, `remote_id` TEXT, `city_id` TEXT, "
+                    + "`image_url` TEXT, `caption` TEXT, FOREIGN KEY(`city_name`) REFERENCES `cities`(`name`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_city_gallery_city_name_position` "
+                    + "ON `city_gallery` (`city_name`, `position`)");
+        }
+    };
+
+    /**
+     * 12 -> 13: disk tier of the Gemini answer cache.
+     */
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `gemini_responses` (`cache_key` TEXT NOT NULL, `model_id` TEXT, "
+                    + "`language` TEXT, `response` TEXT, `created_at` INTEGER NOT NULL, "
+                    + "`last_used_at` INTEGER NOT NULL, PRIMARY KEY(`cache_key`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_gemini_responses_last_used_at` "
+                    + "ON `gemini_responses` (`last_used_at`)");
+        }
+    };
+
+    /**
+     * 13 -> 14: stored chat conversations.
+     */
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `chat_messages` (`id` TEXT NOT NULL, `conversation_id` TEXT NOT NULL, "
+                    + "`role` TEXT, `content` TEXT, `context_type` TEXT, `context_data` TEXT, `language` TEXT, "
+                    + "`timestamp` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_chat_messages_conversation_id_timestamp` "
+                    + "ON `chat_messages` (`conversation_id`, `timestamp`)");
+        }
+    };
+
+    /**
+     * 14 -> 15: no schema change. Places used to be written with INSERT OR REPLACE, whose
+     * implicit delete skips the places_fts delete trigger, so the index kept stale tokens.
+     * Rebuilds the index from the places table.
+     */
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("INSERT INTO `places_fts`(`places_fts`) VALUES('rebuild')");
+        }
+    };
+
+    static final Migration[] ALL = {MIGRATION_4_12, MIGRATION_12_13, MIGRATION_13_14, MIGRATION_14_15};
+
+    /**
+     * Keeps places_fts in step with places; Room only creates these triggers for new databases.
+     */
+    private static void createPlacesFtsTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_places_fts_BEFORE_UPDATE "
+                + "BEFORE UPDATE ON `places` BEGIN DELETE FROM `places_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_places_fts_BEFORE_DELETE "
+                + "BEFORE DELETE ON `places` BEGIN DELETE FROM `places_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_places_fts_AFTER_UPDATE "
+                + "AFTER UPDATE ON `places` BEGIN INSERT INTO `places_fts`(`docid`, `name`, `city`, `category`, `tags`) "
+                + "VALUES (NEW.`rowid`, NEW.`name`, NEW.`city`, NEW.`category`, NEW.`tags`); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_places_fts_AFTER_INSERT "
+                + "AFTER INSERT ON `places` BEGIN INSERT INTO `places_fts`(`docid`, `name`, `city`, `category`, `tags`) "
+                + "VALUES (NEW.`rowid`, NEW.`name`, NEW.`city`, NEW.`category`, NEW.`tags`); END");
+    }
+}
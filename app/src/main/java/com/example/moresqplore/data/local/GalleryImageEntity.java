@@ -0,0 +1,99 @@
+package com.example.moresqplore.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.example.moresqplore.data.model.CityGalleryImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Room row for one {@link CityGalleryImage} of a cached city.
+ * Rows are removed with their city and keep the server's order in {@code position}.
+ */
+@Entity(tableName = "city_gallery",
+        foreignKeys = @ForeignKey(entity = com.example.moresqplore.data.model.City.class,
+                parentColumns = "name",
+                childColumns = "city_name",
+                onDelete = ForeignKey.CASCADE),
+        indices = {@Index(value = {"city_name", "position"}, unique = true)})
+public class GalleryImageEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    private long rowId;
+
+    @NonNull
+    @ColumnInfo(name = "city_name")
+    private String cityName = "";
+
+    private int position;
+
+    // Server-side image id and city id, kept for round-tripping
+    @ColumnInfo(name = "remote_id")
+    private String remoteId;
+
+    @ColumnInfo(name = "city_id")
+    private String cityId;
+
+    @ColumnInfo(name = "image_url")
+    private String imageUrl;
+
+    private String caption;
+
+    public GalleryImageEntity() {}
+
+    public static List<GalleryImageEntity> fromImages(String cityName, List<CityGalleryImage> images) {
+        List<GalleryImageEntity> entities = new ArrayList<>(images.size());
+        for (int i = 0; i < images.size(); i++) {
+            CityGalleryImage image = images.get(i);
+            GalleryImageEntity entity = new GalleryImageEntity();
+            entity.cityName = cityName;
+            entity.position = i;
+            entity.remoteId = image.getId();
+            entity.cityId = image.getCityId();
+            entity.imageUrl = image.getImageUrl();
+            entity.caption = image.getCaption();
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    public static List<CityGalleryImage> toImages(List<GalleryImageEntity> entities) {
+        List<CityGalleryImage> images = new ArrayList<>(entities.size());
+        for (GalleryImageEntity entity : entities) {
+            CityGalleryImage image = new CityGalleryImage();
+            image.setId(entity.remoteId);
+            image.setCityId(entity.cityId);
+            image.setImageUrl(entity.imageUrl);
+            image.setCaption(entity.caption);
+            images.add(image);
+        }
+        return images;
+    }
+
+    // Getters and Setters (required by Room)
+    public long getRowId() { return rowId; }
+    public void setRowId(long rowId) { this.rowId = rowId; }
+
+    @NonNull
+    public String getCityName() { return cityName; }
+    public void setCityName(@NonNull String cityName) { this.cityName = cityName; }
+
+    public int getPosition() { return position; }
+    public void setPosition(int position) { this.position = position; }
+
+    public String getRemoteId() { return remoteId; }
+    public void setRemoteId(String remoteId) { this.remoteId = remoteId; }
+
+    public String getCityId() { return cityId; }
+    public void setCityId(String cityId) { this.cityId = cityId; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getCaption() { return caption; }
+    public void setCaption(String caption) { this.caption = caption; }
+}
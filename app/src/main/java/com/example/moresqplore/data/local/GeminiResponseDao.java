@@ -0,0 +1,26 @@
+package com.example.moresqplore.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface GeminiResponseDao {
+    @Query("SELECT * FROM gemini_responses WHERE cache_key = :cacheKey AND created_at >= :createdAfter LIMIT 1")
+    GeminiResponseEntity getFresh(String cacheKey, long createdAfter);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(GeminiResponseEntity response);
+
+    @Query("UPDATE gemini_responses SET last_used_at = :usedAt WHERE cache_key = :cacheKey")
+    void markUsed(String cacheKey, long usedAt);
+
+    @Query("DELETE FROM gemini_responses WHERE created_at < :createdBefore")
+    int deleteExpired(long createdBefore);
+
+    // Keeps the most recently used rows
+    @Query("DELETE FROM gemini_responses WHERE cache_key NOT IN "
+            + "(SELECT cache_key FROM gemini_responses ORDER BY last_used_at DESC LIMIT :maxEntries)")
+    int trimTo(int maxEntries);
+}
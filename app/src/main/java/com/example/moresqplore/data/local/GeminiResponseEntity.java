@@ -0,0 +1,66 @@
+package com.example.moresqplore.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Disk tier of the Gemini answer cache: one stored answer per prompt, language and model.
+ */
+@Entity(tableName = "gemini_responses", indices = {@Index("last_used_at")})
+public class GeminiResponseEntity {
+
+    // Hash of model id, language and normalized prompt
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "cache_key")
+    private String cacheKey = "";
+
+    @ColumnInfo(name = "model_id")
+    private String modelId;
+
+    private String language;
+    private String response;
+
+    // When the answer was generated (epoch millis); expiry is measured from here
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    // Last time the answer was served; the least recently used rows are evicted first
+    @ColumnInfo(name = "last_used_at")
+    private long lastUsedAt;
+
+    public GeminiResponseEntity() {}
+
+    @Ignore
+    public GeminiResponseEntity(@NonNull String cacheKey, String modelId, String language, String response, long createdAt) {
+        this.cacheKey = cacheKey;
+        this.modelId = modelId;
+        this.language = language;
+        this.response = response;
+        this.createdAt = createdAt;
+        this.lastUsedAt = createdAt;
+    }
+
+    @NonNull
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(@NonNull String cacheKey) { this.cacheKey = cacheKey; }
+
+    public String getModelId() { return modelId; }
+    public void setModelId(String modelId) { this.modelId = modelId; }
+
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+
+    public String getResponse() { return response; }
+    public void setResponse(String response) { this.response = response; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public long getLastUsedAt() { return lastUsedAt; }
+    public void setLastUsedAt(long lastUsedAt) { this.lastUsedAt = lastUsedAt; }
+}
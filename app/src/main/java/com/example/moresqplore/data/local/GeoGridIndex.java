@@ -0,0 +1,373 @@
+package com.example.moresqplore.data.local;
+
+import com.example.moresqplore.data.model.GeoBounds;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index bucketing points into fixed-size lat/lon grid cells.
+ *
+ * Radius queries only visit the cells overlapping the search box, and k-nearest
+ * queries expand ring by ring around the query cell until no unvisited cell can
+ * hold a closer point, so cost depends on local density rather than index size.
+ * Entries are keyed so they can be inserted, moved and removed incrementally.
+ *
+ * Longitudes are not wrapped across the antimeridian, which is fine for Morocco.
+ *
+ * @param <T> value stored with each point (a Place, or just its id)
+ */
+public class GeoGridIndex<T> {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+
+    /** ~5.5 km cells: a city fits in a handful, the whole country in a few thousand. */
+    public static final double DEFAULT_CELL_SIZE_DEGREES = 0.05;
+
+    /**
+     * A query result together with its great-circle distance from the query point.
+     */
+    public static final class Neighbor<T> {
+        private final String key;
+        private final T value;
+        private final double distanceKm;
+
+        Neighbor(String key, T value, double distanceKm) {
+            this.key = key;
+            this.value = value;
+            this.distanceKm = distanceKm;
+        }
+
+        public String getKey() { return key; }
+        public T getValue() { return value; }
+        public double getDistanceKm() { return distanceKm; }
+    }
+
+    private static final class Entry<T> {
+        final String key;
+        final double latitude;
+        final double longitude;
+        final long cell;
+        final T value;
+
+        Entry(String key, double latitude, double longitude, long cell, T value) {
+            this.key = key;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cell = cell;
+            this.value = value;
+        }
+    }
+
+    private final double cellSizeDegrees;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private final Map<String, Entry<T>> entriesByKey = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Occupied extent in cell coordinates and latitude; only ever grows, which keeps bounds conservative
+    private int minRow = Integer.MAX_VALUE;
+    private int maxRow = Integer.MIN_VALUE;
+    private int minCol = Integer.MAX_VALUE;
+    private int maxCol = Integer.MIN_VALUE;
+    private double maxAbsLatitude = 0;
+
+    public GeoGridIndex() {
+        this(DEFAULT_CELL_SIZE_DEGREES);
+    }
+
+    public GeoGridIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Inserts a point, replacing any previous entry with the same key.
+     */
+    public void put(String key, double latitude, double longitude, T value) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            int row = row(latitude);
+            int col = col(longitude);
+            long cell = cellKey(row, col);
+            Entry<T> entry = new Entry<>(key, latitude, longitude, cell, value);
+
+            List<Entry<T>> bucket = cells.get(cell);
+            if (bucket == null) {
+                bucket = new ArrayList<>(4);
+                cells.put(cell, bucket);
+            }
+            bucket.add(entry);
+            entriesByKey.put(key, entry);
+
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+            maxAbsLatitude = Math.max(maxAbsLatitude, Math.abs(latitude));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            entriesByKey.clear();
+            minRow = Integer.MAX_VALUE;
+            maxRow = Integer.MIN_VALUE;
+            minCol = Integer.MAX_VALUE;
+            maxCol = Integer.MIN_VALUE;
+            maxAbsLatitude = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entriesByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(String key) {
+        Entry<T> existing = entriesByKey.remove(key);
+        if (existing == null) {
+            return false;
+        }
+        List<Entry<T>> bucket = cells.get(existing.cell);
+        if (bucket != null) {
+            bucket.remove(existing);
+            if (bucket.isEmpty()) {
+                cells.remove(existing.cell);
+            }
+        }
+        return true;
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Returns every point within {@code radiusKm}, nearest first.
+     */
+    public List<Neighbor<T>> withinRadius(double latitude, double longitude, double radiusKm) {
+        GeoBounds bounds = GeoBounds.around(latitude, longitude, radiusKm);
+        List<Neighbor<T>> results = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (entriesByKey.isEmpty()) {
+                return results;
+            }
+            int fromRow = Math.max(row(bounds.getMinLatitude()), minRow);
+            int toRow = Math.min(row(bounds.getMaxLatitude()), maxRow);
+            int fromCol = Math.max(col(bounds.getMinLongitude()), minCol);
+            int toCol = Math.min(col(bounds.getMaxLongitude()), maxCol);
+            if (fromRow > toRow || fromCol > toCol) {
+                return results;
+            }
+
+            long boxCells = (long) (toRow - fromRow + 1) * (toCol - fromCol + 1);
+            if (boxCells > cells.size()) {
+                // Box spans more cells than are occupied; walk the occupied ones instead
+                for (List<Entry<T>> bucket : cells.values()) {
+                    collectWithin(bucket, bounds, latitude, longitude, radiusKm, results);
+                }
+            } else {
+                for (int row = fromRow; row <= toRow; row++) {
+                    for (int col = fromCol; col <= toCol; col++) {
+                        List<Entry<T>> bucket = cells.get(cellKey(row, col));
+                        if (bucket != null) {
+                            collectWithin(bucket, bounds, latitude, longitude, radiusKm, results);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Collections.sort(results, (a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return results;
+    }
+
+    /**
+     * Returns up to {@code k} nearest points, nearest first.
+     */
+    public List<Neighbor<T>> nearest(double latitude, double longitude, int k) {
+        return nearest(latitude, longitude, k, Double.MAX_VALUE);
+    }
+
+    /**
+     * Returns up to {@code k} nearest points no further than {@code maxDistanceKm}, nearest first.
+     */
+    public List<Neighbor<T>> nearest(double latitude, double longitude, int k, double maxDistanceKm) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        // Max-heap on distance holding the best k seen so far
+        PriorityQueue<Neighbor<T>> best = new PriorityQueue<>(k,
+                (a, b) -> Double.compare(b.distanceKm, a.distanceKm));
+
+        lock.readLock().lock();
+        try {
+            if (entriesByKey.isEmpty()) {
+                return new ArrayList<>();
+            }
+            int centerRow = row(latitude);
+            int centerCol = col(longitude);
+            double cosMaxLat = Math.cos(Math.toRadians(
+                    Math.min(90, Math.max(maxAbsLatitude, Math.abs(latitude)))));
+
+            for (int ring = 0; ; ring++) {
+                scanRing(centerRow, centerCol, ring, latitude, longitude, k, maxDistanceKm, best);
+
+                boolean coversAll = centerRow - ring <= minRow && centerRow + ring >= maxRow
+                        && centerCol - ring <= minCol && centerCol + ring >= maxCol;
+                if (coversAll) {
+                    break;
+                }
+                double nextRingKm = minDistanceBeyondRing(ring, cosMaxLat);
+                if (nextRingKm > maxDistanceKm) {
+                    break;
+                }
+                if (best.size() == k && best.peek().distanceKm <= nextRingKm) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Neighbor<T>> results = new ArrayList<>(best);
+        Collections.sort(results, (a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return results;
+    }
+
+    private void scanRing(int centerRow, int centerCol, int ring, double latitude, double longitude,
+                          int k, double maxDistanceKm, PriorityQueue<Neighbor<T>> best) {
+        if (ring == 0) {
+            offerAll(cells.get(cellKey(centerRow, centerCol)), latitude, longitude, k, maxDistanceKm, best);
+            return;
+        }
+        int top = centerRow - ring;
+        int bottom = centerRow + ring;
+        int left = centerCol - ring;
+        int right = centerCol + ring;
+        // Only touch the part of the ring that overlaps occupied cells
+        int fromCol = Math.max(left, minCol);
+        int toCol = Math.min(right, maxCol);
+        int fromRow = Math.max(top + 1, minRow);
+        int toRow = Math.min(bottom - 1, maxRow);
+        for (int col = fromCol; col <= toCol; col++) {
+            if (top >= minRow) {
+                offerAll(cells.get(cellKey(top, col)), latitude, longitude, k, maxDistanceKm, best);
+            }
+            if (bottom <= maxRow) {
+                offerAll(cells.get(cellKey(bottom, col)), latitude, longitude, k, maxDistanceKm, best);
+            }
+        }
+        for (int row = fromRow; row <= toRow; row++) {
+            if (left >= minCol) {
+                offerAll(cells.get(cellKey(row, left)), latitude, longitude, k, maxDistanceKm, best);
+            }
+            if (right <= maxCol) {
+                offerAll(cells.get(cellKey(row, right)), latitude, longitude, k, maxDistanceKm, best);
+            }
+        }
+    }
+
+    private void offerAll(List<Entry<T>> bucket, double latitude, double longitude,
+                          int k, double maxDistanceKm, PriorityQueue<Neighbor<T>> best) {
+        if (bucket == null) {
+            return;
+        }
+        for (Entry<T> entry : bucket) {
+            double distance = distanceKm(latitude, longitude, entry.latitude, entry.longitude);
+            if (distance > maxDistanceKm) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Neighbor<>(entry.key, entry.value, distance));
+            } else if (distance < best.peek().distanceKm) {
+                best.poll();
+                best.add(new Neighbor<>(entry.key, entry.value, distance));
+            }
+        }
+    }
+
+    /**
+     * Lower bound on the distance from a point in the center cell to any cell outside {@code ring}.
+     * Such a cell is at least {@code ring} whole cells away in latitude or in longitude.
+     */
+    private double minDistanceBeyondRing(int ring, double cosMaxLat) {
+        double gapDegrees = ring * cellSizeDegrees;
+        double latitudeGapKm = gapDegrees * KM_PER_DEGREE;
+        double halfLonGap = Math.toRadians(Math.min(gapDegrees, 180)) / 2;
+        double longitudeGapKm = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, cosMaxLat * Math.sin(halfLonGap)));
+        return Math.min(latitudeGapKm, longitudeGapKm);
+    }
+
+    private void collectWithin(List<Entry<T>> bucket, GeoBounds bounds, double latitude, double longitude,
+                               double radiusKm, List<Neighbor<T>> results) {
+        for (Entry<T> entry : bucket) {
+            if (!bounds.contains(entry.latitude, entry.longitude)) {
+                continue;
+            }
+            double distance = distanceKm(latitude, longitude, entry.latitude, entry.longitude);
+            if (distance <= radiusKm) {
+                results.add(new Neighbor<>(entry.key, entry.value, distance));
+            }
+        }
+    }
+
+    // ==================== GRID MATH ====================
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellSizeDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor(longitude / cellSizeDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    /**
+     * Haversine distance in kilometers.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
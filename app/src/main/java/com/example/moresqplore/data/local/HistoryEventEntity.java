@@ -0,0 +1,86 @@
+package com.example.moresqplore.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.example.moresqplore.data.model.HistoryEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Room row for one {@link HistoryEvent} of a cached city's timeline.
+ * Rows are removed with their city and keep the server's timeline order in {@code position}.
+ */
+@Entity(tableName = "city_history",
+        foreignKeys = @ForeignKey(entity = com.example.moresqplore.data.model.City.class,
+                parentColumns = "name",
+                childColumns = "city_name",
+                onDelete = ForeignKey.CASCADE),
+        indices = {@Index(value = {"city_name", "position"}, unique = true)})
+public class HistoryEventEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    private long rowId;
+
+    @NonNull
+    @ColumnInfo(name = "city_name")
+    private String cityName = "";
+
+    private int position;
+
+    private String year;
+
+    @ColumnInfo(name = "event_title")
+    private String event;
+
+    @ColumnInfo(name = "event_description")
+    private String description;
+
+    public HistoryEventEntity() {}
+
+    public static List<HistoryEventEntity> fromEvents(String cityName, List<HistoryEvent> events) {
+        List<HistoryEventEntity> entities = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            HistoryEvent event = events.get(i);
+            HistoryEventEntity entity = new HistoryEventEntity();
+            entity.cityName = cityName;
+            entity.position = i;
+            entity.year = event.getYear();
+            entity.event = event.getEvent();
+            entity.description = event.getDescription();
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    public static List<HistoryEvent> toEvents(List<HistoryEventEntity> entities) {
+        List<HistoryEvent> events = new ArrayList<>(entities.size());
+        for (HistoryEventEntity entity : entities) {
+            events.add(new HistoryEvent(entity.year, entity.event, entity.description));
+        }
+        return events;
+    }
+
+    // Getters and Setters (required by Room)
+    public long getRowId() { return rowId; }
+    public void setRowId(long rowId) { this.rowId = rowId; }
+
+    @NonNull
+    public String getCityName() { return cityName; }
+    public void setCityName(@NonNull String cityName) { this.cityName = cityName; }
+
+    public int getPosition() { return position; }
+    public void setPosition(int position) { this.position = position; }
+
+    public String getYear() { return year; }
+    public void setYear(String year) { this.year = year; }
+
+    public String getEvent() { return event; }
+    public void setEvent(String event) { this.event = event; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
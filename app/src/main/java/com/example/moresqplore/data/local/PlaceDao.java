@@ -0,0 +1,78 @@
+package com.example.moresqplore.data.local;
+
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Update;
+import androidx.room.Upsert;
+import com.example.moresqplore.data.model.PlaceSummary;
+import java.util.List;
+
+@Dao
+public interface PlaceDao {
+    String SUMMARY_COLUMNS = "id, name, category, city, thumbnail_url, rating, review_count, "
+            + "ticket_price, is_free_entry, latitude, longitude";
+
+    @Query("SELECT * FROM places WHERE id = :placeId LIMIT 1")
+    PlaceEntity getPlaceById(String placeId);
+
+    @Query("SELECT * FROM places WHERE city = :city ORDER BY rating DESC")
+    List<PlaceEntity> getPlacesByCity(String city);
+
+    @Query("SELECT * FROM places ORDER BY rating DESC LIMIT :limit")
+    List<PlaceEntity> getTopRatedPlaces(int limit);
+
+    @Query("SELECT * FROM places WHERE category = :category ORDER BY rating IS NULL, rating DESC, id ASC LIMIT :limit")
+    List<PlaceEntity> getPlacesByCategory(String category, int limit);
+
+    @Query("SELECT * FROM places WHERE city = :city AND category = :category ORDER BY rating IS NULL, rating DESC, id ASC")
+    List<PlaceEntity> getPlacesByCityAndCategory(String city, String category);
+
+    @Query("SELECT * FROM places WHERE id IN (:placeIds)")
+    List<PlaceEntity> getPlacesByIds(List<String> placeIds);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM places WHERE city = :city ORDER BY rating DESC")
+    List<PlaceSummary> getPlaceSummariesByCity(String city);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM places ORDER BY rating DESC LIMIT :limit")
+    List<PlaceSummary> getTopRatedPlaceSummaries(int limit);
+
+    // Candidates for PlaceSearch.rank(); match is built by PlaceSearch.toMatchQuery()
+    @Query("SELECT places.* FROM places JOIN places_fts ON places.rowid = places_fts.rowid "
+            + "WHERE places_fts MATCH :match LIMIT :limit")
+    List<PlaceEntity> searchPlaces(String match, int limit);
+
+    @Query("SELECT id, latitude, longitude FROM places WHERE latitude IS NOT NULL AND longitude IS NOT NULL")
+    List<PlaceLocation> getPlaceLocations();
+
+    // Paged queries share the keyset order used by the remote mediator (nulls last)
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM places WHERE city = :city ORDER BY rating IS NULL, rating DESC, id ASC")
+    PagingSource<Integer, PlaceSummary> pagingSourceByCity(String city);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM places ORDER BY rating IS NULL, rating DESC, id ASC")
+    PagingSource<Integer, PlaceSummary> pagingSourceTopRated();
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM places WHERE category = :category ORDER BY rating IS NULL, rating DESC, id ASC")
+    PagingSource<Integer, PlaceSummary> pagingSourceByCategory(String category);
+
+    // Upsert, not REPLACE: REPLACE's implicit delete skips the places_fts delete trigger, which
+    // would leave the old row's tokens in the index
+    @Upsert
+    void insertPlaces(List<PlaceEntity> places);
+
+    // Partial writes: only the summary columns are touched, so cached details survive
+    @Insert(entity = PlaceEntity.class, onConflict = OnConflictStrategy.IGNORE)
+    void insertSummariesIfAbsent(List<PlaceSummary> summaries);
+
+    @Update(entity = PlaceEntity.class)
+    void updateSummaries(List<PlaceSummary> summaries);
+
+    @Transaction
+    default void upsertSummaries(List<PlaceSummary> summaries) {
+        insertSummariesIfAbsent(summaries);
+        updateSummaries(summaries);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.moresqplore.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import com.example.moresqplore.data.model.Place;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Room row for a cached {@link Place}.
+ * Kept separate from the network model so the API shape can change without a schema bump.
+ */
+@Entity(tableName = "places",
+        indices = {@Index("city"), @Index("rating"),
+                // Category reads are filtered by category (and city) and ordered by rating
+                @Index({"category", "rating"}), @Index({"city", "category"})})
+public class PlaceEntity {
+
+    @PrimaryKey
+    @NonNull
+    private String id = "";
+
+    private String name;
+    private String description;
+    private String category;
+    private String city;
+    private String address;
+
+    @ColumnInfo(name = "image_url")
+    private String imageUrl;
+
+    @ColumnInfo(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    private Double rating;
+
+    @ColumnInfo(name = "review_count")
+    private Integer reviewCount;
+
+    @ColumnInfo(name = "opening_hours")
+    private String openingHours;
+
+    @ColumnInfo(name = "ticket_price")
+    private Double ticketPrice;
+
+    @ColumnInfo(name = "is_free_entry")
+    private Boolean freeEntry;
+
+    private String website;
+
+    @ColumnInfo(name = "phone_number")
+    private String phoneNumber;
+
+    private Double latitude;
+    private Double longitude;
+    private List<String> tags;
+
+    @ColumnInfo(name = "view_count")
+    private Integer viewCount;
+
+    @ColumnInfo(name = "estimated_duration")
+    private Integer estimatedVisitDuration;
+
+    @ColumnInfo(name = "updated_at")
+    private String updatedAt;
+
+    // When this row was last written from the network (epoch millis)
+    @ColumnInfo(name = "cached_at", defaultValue = "0")
+    private long cachedAt;
+
+    // False while only the PlaceSummary columns have been fetched for this row
+    @ColumnInfo(name = "has_details", defaultValue = "0")
+    private boolean hasDetails;
+
+    public PlaceEntity() {}
+
+    public static PlaceEntity fromPlace(Place place, long cachedAt) {
+        PlaceEntity entity = new PlaceEntity();
+        entity.id = place.getId();
+        entity.name = place.getName();
+        entity.description = place.getDescription();
+        entity.category = place.getCategory();
+        entity.city = place.getCity();
+        entity.address = place.getAddress();
+        entity.imageUrl = place.getImageUrl();
+        entity.thumbnailUrl = place.getThumbnailUrl();
+        entity.rating = place.getRating();
+        entity.reviewCount = place.getReviewCount();
+        entity.openingHours = place.getOpeningHours();
+        entity.ticketPrice = place.getTicketPrice();
+        entity.freeEntry = place.isFreeEntry();
+        entity.website = place.getWebsite();
+        entity.phoneNumber = place.getPhoneNumber();
+        entity.latitude = place.getLatitude();
+        entity.longitude = place.getLongitude();
+        entity.tags = place.getTags();
+        entity.viewCount = place.getViewCount();
+        entity.estimatedVisitDuration = place.getEstimatedVisitDuration();
+        entity.updatedAt = place.getUpdatedAt();
+        entity.cachedAt = cachedAt;
+        entity.hasDetails = true;
+        return entity;
+    }
+
+    public static List<PlaceEntity> fromPlaces(List<Place> places, long cachedAt) {
+        List<PlaceEntity> entities = new ArrayList<>(places.size());
+        for (Place place : places) {
+            if (place != null && place.getId() != null) {
+                entities.add(fromPlace(place, cachedAt));
+            }
+        }
+        return entities;
+    }
+
+    public Place toPlace() {
+        Place place = new Place();
+        place.setId(id);
+        place.setName(name);
+        place.setDescription(description);
+        place.setCategory(category);
+        place.setCity(city);
+        place.setAddress(address);
+        place.setImageUrl(imageUrl);
+        place.setThumbnailUrl(thumbnailUrl);
+        place.setRating(rating);
+        place.setReviewCount(reviewCount);
+        place.setOpeningHours(openingHours);
+        place.setTicketPrice(ticketPrice);
+        place.setFreeEntry(freeEntry);
+        place.setWebsite(website);
+        place.setPhoneNumber(phoneNumber);
+        place.setLatitude(latitude);
+        place.setLongitude(longitude);
+        place.setTags(tags);
+        place.setViewCount(viewCount);
+        place.setEstimatedVisitDuration(estimatedVisitDuration);
+        place.setUpdatedAt(updatedAt);
+        return place;
+    }
+
+    public static List<Place> toPlaces(List<PlaceEntity> entities) {
+        List<Place> places = new ArrayList<>(entities != null ? entities.size() : 0);
+        if (entities != null) {
+            for (PlaceEntity entity : entities) {
+                places.add(entity.toPlace());
+            }
+        }
+        return places;
+    }
+
+    // Getters and Setters (required by Room)
+    @NonNull
+    public String getId() { return id; }
+    public void setId(@NonNull String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public Double getRating() { return rating; }
+    public void setRating(Double rating) { this.rating = rating; }
+
+    public Integer getReviewCount() { return reviewCount; }
+    public void setReviewCount(Integer reviewCount) { this.reviewCount = reviewCount; }
+
+    public String getOpeningHours() { return openingHours; }
+    public void setOpeningHours(String openingHours) { this.openingHours = openingHours; }
+
+    public Double getTicketPrice() { return ticketPrice; }
+    public void setTicketPrice(Double ticketPrice) { this.ticketPrice = ticketPrice; }
+
+    public Boolean getFreeEntry() { return freeEntry; }
+    public void setFreeEntry(Boolean freeEntry) { this.freeEntry = freeEntry; }
+
+    public String getWebsite() { return website; }
+    public void setWebsite(String website) { this.website = website; }
+
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+
+    public Integer getViewCount() { return viewCount; }
+    public void setViewCount(Integer viewCount) { this.viewCount = viewCount; }
+
+    public Integer getEstimatedVisitDuration() { return estimatedVisitDuration; }
+    public void setEstimatedVisitDuration(Integer estimatedVisitDuration) { this.estimatedVisitDuration = estimatedVisitDuration; }
+
+    public String getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(String updatedAt) { this.updatedAt = updatedAt; }
+
+    public long getCachedAt() { return cachedAt; }
+    public void setCachedAt(long cachedAt) { this.cachedAt = cachedAt; }
+
+    public boolean hasDetails() { return hasDetails; }
+    public void setHasDetails(boolean hasDetails) { this.hasDetails = hasDetails; }
+}
@@ -0,0 +1,23 @@
+package com.example.moresqplore.data.local;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the searchable columns of {@link PlaceEntity}.
+ * External-content table: Room keeps it in sync with {@code places} through triggers,
+ * so it stores only the index. The unicode61 tokenizer lowercases and strips
+ * diacritics, which makes "Fès" and "fes" the same token.
+ */
+@Fts4(contentEntity = PlaceEntity.class,
+        tokenizer = FtsOptions.TOKENIZER_UNICODE61,
+        tokenizerArgs = {"remove_diacritics=1"})
+@Entity(tableName = "places_fts")
+public class PlaceFts {
+    public String name;
+    public String city;
+    public String category;
+    // JSON array as stored in places.tags; brackets and quotes are dropped by the tokenizer
+    public String tags;
+}
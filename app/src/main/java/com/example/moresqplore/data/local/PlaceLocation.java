@@ -0,0 +1,11 @@
+package com.example.moresqplore.data.local;
+
+/**
+ * Projection of a cached place onto just its id and coordinates,
+ * used to warm the in-memory spatial index without loading full rows.
+ */
+public class PlaceLocation {
+    public String id;
+    public Double latitude;
+    public Double longitude;
+}
@@ -0,0 +1,123 @@
+package com.example.moresqplore.data.local;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Query building and ranking for the local place search over {@link PlaceFts}.
+ *
+ * Text is folded the same way the FTS tokenizer folds it (lowercase, no diacritics),
+ * every query term becomes a prefix term, and matches are ranked by where the terms
+ * hit: place name first, then city, then category and tags, with rating as tie-breaker.
+ */
+public final class PlaceSearch {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int NAME_PREFIX_SCORE = 4;
+    private static final int NAME_START_BONUS = 2;
+    private static final int CITY_PREFIX_SCORE = 2;
+    private static final int OTHER_PREFIX_SCORE = 1;
+
+    private PlaceSearch() {}
+
+    /**
+     * Lowercases and strips diacritics: "Meknès" becomes "meknes".
+     */
+    public static String fold(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folded search terms of the query, punctuation removed.
+     */
+    public static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(fold(query))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * FTS MATCH expression requiring every term as a prefix, e.g. "fes* med*",
+     * or null when the query has no searchable terms.
+     */
+    public static String toMatchQuery(String query) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) return null;
+        StringBuilder match = new StringBuilder();
+        for (String term : terms) {
+            if (match.length() > 0) match.append(' ');
+            match.append(term).append('*');
+        }
+        return match.toString();
+    }
+
+    /**
+     * Sorts FTS matches by relevance to the query, best first.
+     */
+    public static List<PlaceEntity> rank(List<PlaceEntity> matches, String query) {
+        List<String> terms = terms(query);
+        Map<PlaceEntity, Integer> scores = new HashMap<>();
+        for (PlaceEntity place : matches) {
+            scores.put(place, score(place, terms));
+        }
+        List<PlaceEntity> ranked = new ArrayList<>(matches);
+        Collections.sort(ranked, Comparator
+                .comparing((PlaceEntity place) -> scores.get(place)).reversed()
+                .thenComparing(place -> place.getRating() != null ? place.getRating() : 0.0,
+                        Comparator.reverseOrder()));
+        return ranked;
+    }
+
+    private static int score(PlaceEntity place, List<String> terms) {
+        List<String> nameWords = words(place.getName());
+        List<String> cityWords = words(place.getCity());
+        List<String> otherWords = words(place.getCategory());
+        if (place.getTags() != null) {
+            for (String tag : place.getTags()) {
+                otherWords.addAll(words(tag));
+            }
+        }
+
+        int score = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            if (hasPrefix(nameWords, term)) {
+                score += NAME_PREFIX_SCORE;
+                if (i == 0 && !nameWords.isEmpty() && nameWords.get(0).startsWith(term)) {
+                    score += NAME_START_BONUS;
+                }
+            } else if (hasPrefix(cityWords, term)) {
+                score += CITY_PREFIX_SCORE;
+            } else if (hasPrefix(otherWords, term)) {
+                score += OTHER_PREFIX_SCORE;
+            }
+        }
+        return score;
+    }
+
+    private static List<String> words(String text) {
+        return text == null ? new ArrayList<>() : terms(text);
+    }
+
+    private static boolean hasPrefix(List<String> words, String term) {
+        for (String word : words) {
+            if (word.startsWith(term)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.moresqplore.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Incremental sync position for one synced collection (e.g. "places:city:Fes"):
+ * the newest {@code updated_at} already applied locally, and the ETag of the
+ * last response so an unchanged collection can be answered with a 304.
+ */
+@Entity(tableName = "sync_cursors")
+public class SyncCursor {
+
+    @PrimaryKey
+    @NonNull
+    private String scope = "";
+
+    @ColumnInfo(name = "max_updated_at")
+    private String maxUpdatedAt;
+
+    private String etag;
+
+    public SyncCursor() {}
+
+    @androidx.room.Ignore
+    public SyncCursor(@NonNull String scope, String maxUpdatedAt, String etag) {
+        this.scope = scope;
+        this.maxUpdatedAt = maxUpdatedAt;
+        this.etag = etag;
+    }
+
+    @NonNull
+    public String getScope() { return scope; }
+    public void setScope(@NonNull String scope) { this.scope = scope; }
+
+    public String getMaxUpdatedAt() { return maxUpdatedAt; }
+    public void setMaxUpdatedAt(String maxUpdatedAt) { this.maxUpdatedAt = maxUpdatedAt; }
+
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
+}
@@ -0,0 +1,15 @@
+package com.example.moresqplore.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface SyncCursorDao {
+    @Query("SELECT * FROM sync_cursors WHERE scope = :scope LIMIT 1")
+    SyncCursor get(String scope);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(SyncCursor cursor);
+}
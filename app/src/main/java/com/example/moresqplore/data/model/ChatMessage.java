@@ -1,6 +1,7 @@
 package com.example.moresqplore.data.model;
 
 import java.util.Date;
+import java.util.UUID;
 
 public class ChatMessage {
     private String id;
@@ -14,6 +15,7 @@ public class ChatMessage {
     private Date timestamp;
 
     public ChatMessage() {
+        this.id = UUID.randomUUID().toString();
         this.timestamp = new Date();
     }
 
@@ -31,6 +33,21 @@ public class ChatMessage {
         return new ChatMessage("assistant", content);
     }
 
+    /**
+     * Copy of this message with new content and the loading flag cleared. A streamed answer is
+     * published as successive copies, so a list already handed to the UI is never mutated.
+     */
+    public ChatMessage withContent(String content) {
+        ChatMessage copy = new ChatMessage(role, content);
+        copy.id = id;
+        copy.conversationId = conversationId;
+        copy.contextType = contextType;
+        copy.contextData = contextData;
+        copy.language = language;
+        copy.timestamp = timestamp;
+        return copy;
+    }
+
     public boolean isUser() {
         return "user".equals(role);
     }
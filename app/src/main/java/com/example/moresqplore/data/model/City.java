@@ -6,6 +6,7 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import java.io.Serializable;
 import java.util.List;
+import java.util.Objects;
 
 @Entity(tableName = "cities")
 public class City implements Serializable {
@@ -23,11 +24,19 @@ public class City implements Serializable {
     
     @SerializedName("cover_image_url")
     private String coverImageUrl;
+
+    // Server-side modification time (ISO-8601), drives incremental sync
+    @androidx.room.ColumnInfo(name = "updated_at")
+    @SerializedName("updated_at")
+    private String updatedAt;
     
+    // Filled by PostgREST resource embedding; stored in their own tables
     @androidx.room.Ignore
+    @SerializedName("history_timeline")
     private List<HistoryEvent> historyEvents;
     
     @androidx.room.Ignore
+    @SerializedName("city_gallery")
     private List<CityGalleryImage> gallery;
 
     public City() {
@@ -57,6 +66,14 @@ public class City implements Serializable {
         this.id = id;
     }
 
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -130,4 +147,26 @@ public class City implements Serializable {
         return null;
     }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    // Value equality over the stored content, so observers can skip re-emissions of an unchanged city
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof City)) return false;
+        City other = (City) o;
+        return name.equals(other.name)
+                && Objects.equals(id, other.id)
+                && Objects.equals(description, other.description)
+                && Objects.equals(coverImageUrl, other.coverImageUrl)
+                && Objects.equals(updatedAt, other.updatedAt)
+                && Objects.equals(getLatitude(), other.getLatitude())
+                && Objects.equals(getLongitude(), other.getLongitude())
+                && Objects.equals(historyEvents, other.historyEvents)
+                && Objects.equals(gallery, other.gallery);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, id, updatedAt);
+    }
 }
@@ -2,6 +2,7 @@ package com.example.moresqplore.data.model;
 
 import com.google.gson.annotations.SerializedName;
 import java.io.Serializable;
+import java.util.Objects;
 
 public class CityGalleryImage implements Serializable {
     @SerializedName("id")
@@ -29,4 +30,20 @@ public class CityGalleryImage implements Serializable {
 
     public String getCaption() { return caption; }
     public void setCaption(String caption) { this.caption = caption; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CityGalleryImage)) return false;
+        CityGalleryImage other = (CityGalleryImage) o;
+        return Objects.equals(id, other.id)
+                && Objects.equals(cityId, other.cityId)
+                && Objects.equals(imageUrl, other.imageUrl)
+                && Objects.equals(caption, other.caption);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, imageUrl);
+    }
 }
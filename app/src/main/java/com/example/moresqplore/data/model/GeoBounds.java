@@ -0,0 +1,64 @@
+package com.example.moresqplore.data.model;
+
+import java.io.Serializable;
+import java.util.Locale;
+
+/**
+ * Latitude/longitude rectangle used as a coarse pre-filter for radius searches.
+ * Every point within the radius is inside the box; callers still refine with Haversine.
+ */
+public class GeoBounds implements Serializable {
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    public GeoBounds(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        this.minLatitude = minLatitude;
+        this.maxLatitude = maxLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLongitude = maxLongitude;
+    }
+
+    /**
+     * Smallest box containing the circle of {@code radiusKm} around the given center.
+     */
+    public static GeoBounds around(double latitude, double longitude, double radiusKm) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius);
+
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+
+        // Near the poles the circle wraps every meridian
+        if (minLat <= -90 || maxLat >= 90) {
+            return new GeoBounds(Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180);
+        }
+
+        double lonDelta = Math.toDegrees(Math.asin(
+                Math.min(1.0, Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude)))));
+        return new GeoBounds(minLat, maxLat,
+                Math.max(longitude - lonDelta, -180), Math.min(longitude + lonDelta, 180));
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude
+                && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+
+    /**
+     * PostgREST {@code and=(...)} filter selecting rows inside this box.
+     */
+    public String toPostgrestFilter() {
+        return String.format(Locale.US,
+                "(latitude.gte.%.6f,latitude.lte.%.6f,longitude.gte.%.6f,longitude.lte.%.6f)",
+                minLatitude, maxLatitude, minLongitude, maxLongitude);
+    }
+
+    public double getMinLatitude() { return minLatitude; }
+    public double getMaxLatitude() { return maxLatitude; }
+    public double getMinLongitude() { return minLongitude; }
+    public double getMaxLongitude() { return maxLongitude; }
+}
@@ -2,6 +2,7 @@ package com.example.moresqplore.data.model;
 
 import com.google.gson.annotations.SerializedName;
 import java.io.Serializable;
+import java.util.Objects;
 
 public class HistoryEvent implements Serializable {
     @SerializedName("year")
@@ -45,4 +46,19 @@ public class HistoryEvent implements Serializable {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HistoryEvent)) return false;
+        HistoryEvent other = (HistoryEvent) o;
+        return Objects.equals(year, other.year)
+                && Objects.equals(event, other.event)
+                && Objects.equals(description, other.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(year, event, description);
+    }
 }
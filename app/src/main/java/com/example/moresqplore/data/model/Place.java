@@ -64,6 +64,10 @@ public class Place implements Serializable {
     
     @SerializedName("view_count")
     private Integer viewCount;
+
+    // Server-side modification time (ISO-8601), drives incremental sync
+    @SerializedName("updated_at")
+    private String updatedAt;
     
     private Double distanceFromUser;
 
@@ -142,6 +146,9 @@ public class Place implements Serializable {
     public Integer getViewCount() { return viewCount; }
     public void setViewCount(Integer viewCount) { this.viewCount = viewCount; }
 
+    public String getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(String updatedAt) { this.updatedAt = updatedAt; }
+
     public Double getDistanceFromUser() { return distanceFromUser; }
     public void setDistanceFromUser(Double distanceFromUser) { this.distanceFromUser = distanceFromUser; }
 
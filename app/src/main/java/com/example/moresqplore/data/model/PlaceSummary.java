@@ -0,0 +1,117 @@
+package com.example.moresqplore.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.io.Serializable;
+
+/**
+ * Compact view of a {@link Place} for list cells and map markers.
+ * Fetched with a {@code select=} projection and read from Room with a column subset;
+ * the full {@link Place} is loaded only when a detail screen opens.
+ */
+public class PlaceSummary implements Serializable {
+
+    /**
+     * PostgREST projection matching the fields below.
+     */
+    public static final String SELECT_COLUMNS =
+            "id,name,category,city,thumbnail_url,rating,review_count,ticket_price,is_free_entry,latitude,longitude";
+
+    @NonNull
+    @SerializedName("id")
+    private String id = "";
+
+    @SerializedName("name")
+    private String name;
+
+    @SerializedName("category")
+    private String category;
+
+    @SerializedName("city")
+    private String city;
+
+    @SerializedName("thumbnail_url")
+    @ColumnInfo(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    @SerializedName("rating")
+    private Double rating;
+
+    @SerializedName("review_count")
+    @ColumnInfo(name = "review_count")
+    private Integer reviewCount;
+
+    @SerializedName("ticket_price")
+    @ColumnInfo(name = "ticket_price")
+    private Double ticketPrice;
+
+    @SerializedName("is_free_entry")
+    @ColumnInfo(name = "is_free_entry")
+    private Boolean freeEntry;
+
+    @SerializedName("latitude")
+    private Double latitude;
+
+    @SerializedName("longitude")
+    private Double longitude;
+
+    public PlaceSummary() {}
+
+    public static PlaceSummary fromPlace(Place place) {
+        PlaceSummary summary = new PlaceSummary();
+        summary.id = place.getId() != null ? place.getId() : "";
+        summary.name = place.getName();
+        summary.category = place.getCategory();
+        summary.city = place.getCity();
+        summary.thumbnailUrl = place.getThumbnailUrl();
+        summary.rating = place.getRating();
+        summary.reviewCount = place.getReviewCount();
+        summary.ticketPrice = place.getTicketPrice();
+        summary.freeEntry = place.isFreeEntry();
+        summary.latitude = place.getLatitude();
+        summary.longitude = place.getLongitude();
+        return summary;
+    }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getId() { return id; }
+    public void setId(@NonNull String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public Double getRating() { return rating; }
+    public void setRating(Double rating) { this.rating = rating; }
+
+    public Integer getReviewCount() { return reviewCount; }
+    public void setReviewCount(Integer reviewCount) { this.reviewCount = reviewCount; }
+
+    public Double getTicketPrice() { return ticketPrice; }
+    public void setTicketPrice(Double ticketPrice) { this.ticketPrice = ticketPrice; }
+
+    public Boolean getFreeEntry() { return freeEntry; }
+    public void setFreeEntry(Boolean freeEntry) { this.freeEntry = freeEntry; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+}
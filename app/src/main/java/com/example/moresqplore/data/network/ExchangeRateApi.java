@@ -0,0 +1,20 @@
+package com.example.moresqplore.data.network;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.Map;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+
+public interface ExchangeRateApi {
+    @GET("{apiKey}/latest/{base}")
+    Call<LatestRates> getLatestRates(@Path("apiKey") String apiKey, @Path("base") String baseCurrency);
+
+    class LatestRates {
+        @SerializedName("result")
+        public String result;
+
+        @SerializedName("conversion_rates")
+        public Map<String, Double> conversionRates;
+    }
+}
@@ -1,11 +1,7 @@
 package com.example.moresqplore.data.network;
 
 import com.example.moresqplore.BuildConfig;
-import java.util.concurrent.TimeUnit;
-import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 import android.util.Log;
 
 /**
@@ -14,13 +10,9 @@ import android.util.Log;
  */
 public class GeminiApiClient {
 
-    private static final String BASE_URL = "https://generativelanguage.googleapis.com/";
-    private static final int CONNECT_TIMEOUT = 30;
-    private static final int READ_TIMEOUT = 60;
-    private static final int WRITE_TIMEOUT = 30;
-
     private static volatile Retrofit retrofit = null;
     private static volatile GeminiService geminiService = null;
+    private static volatile GeminiCallScheduler callScheduler = null;
     private static String apiKey = null;
 
     private GeminiApiClient() {
@@ -43,17 +35,13 @@ public class GeminiApiClient {
 
     /**
      * Returns the Retrofit instance for Gemini API.
-     * Creates the instance if it doesn't exist.
+     * Backed by the shared client from {@link NetworkModule}.
      */
     public static Retrofit getRetrofitInstance() {
         if (retrofit == null) {
             synchronized (GeminiApiClient.class) {
                 if (retrofit == null) {
-                    retrofit = new Retrofit.Builder()
-                            .baseUrl(BASE_URL)
-                            .client(createOkHttpClient())
-                            .addConverterFactory(GsonConverterFactory.create())
-                            .build();
+                    retrofit = NetworkModule.getGeminiRetrofit();
                 }
             }
         }
@@ -75,6 +63,20 @@ public class GeminiApiClient {
         return geminiService;
     }
 
+    /**
+     * Returns the scheduler every Gemini request goes through, so they share one rate limit.
+     */
+    public static GeminiCallScheduler getCallScheduler() {
+        if (callScheduler == null) {
+            synchronized (GeminiApiClient.class) {
+                if (callScheduler == null) {
+                    callScheduler = new GeminiCallScheduler();
+                }
+            }
+        }
+        return callScheduler;
+    }
+
     /**
      * Returns the API key.
      * Priority: 1) Initialize method, 2) BuildConfig, 3) Fallback
@@ -90,25 +92,6 @@ public class GeminiApiClient {
         throw new IllegalStateException("API key not configured");
     }
 
-    /**
-     * Creates a configured OkHttpClient with logging and timeouts.
-     */
-    private static OkHttpClient createOkHttpClient() {
-        OkHttpClient.Builder builder = new OkHttpClient.Builder()
-                .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
-                .readTimeout(READ_TIMEOUT, TimeUnit.SECONDS)
-                .writeTimeout(WRITE_TIMEOUT, TimeUnit.SECONDS);
-
-        // Add logging interceptor for debug builds
-        if (BuildConfig.DEBUG) {
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-            builder.addInterceptor(loggingInterceptor);
-        }
-
-        return builder.build();
-    }
-
     /**
      * Clears the cached instances and API key.
      * Useful for testing or configuration changes.
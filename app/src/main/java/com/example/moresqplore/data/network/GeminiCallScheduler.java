@@ -0,0 +1,370 @@
+package com.example.moresqplore.data.network;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.ResponseBody;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Paces every Gemini request of the app through one queue, since they all share one quota.
+ *
+ * Requests start at most at the configured rate (a token bucket, so short bursts go out
+ * immediately), interactive ones ahead of background ones. A request answered with 429 or a
+ * 5xx, or failing with a network error, is retried with jittered exponential backoff, waiting
+ * at least as long as the server asks (Retry-After, or the RetryInfo in Gemini's error body).
+ * A 429 also pauses the whole queue for that long, including one whose wait is too long to
+ * retry and that is handed to the caller. Under load, requests wait longer instead of
+ * failing; the caller only sees an error once the retries are used up.
+ *
+ * Callbacks receive the call of the last attempt, so {@code call.isCanceled()} works as usual.
+ * Retries happen before the caller sees the response, so streamed bodies are never replayed.
+ */
+public class GeminiCallScheduler {
+
+    private static final String TAG = "GeminiCallScheduler";
+
+    public enum Priority {
+        // Someone is waiting for the answer
+        INTERACTIVE,
+        // Summaries and generation the user did not ask for right now
+        BACKGROUND
+    }
+
+    /**
+     * Handle to a queued or running request.
+     */
+    public interface Ticket {
+        /**
+         * Drops the request if it is still queued, or cancels the running call.
+         * The callback receives onFailure with a cancelled call.
+         */
+        void cancel();
+    }
+
+    // Gemini's free tier allows 15 requests per minute on the Flash models
+    private static final int DEFAULT_REQUESTS_PER_MINUTE = 15;
+    private static final int DEFAULT_BURST = 4;
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    // Beyond this the quota is gone for a while, so the error is reported instead of waited out
+    private static final long MAX_RETRY_DELAY_MS = 60_000;
+    private static final Pattern RETRY_DELAY = Pattern.compile("\"retryDelay\"\\s*:\\s*\"(\\d+(?:\\.\\d+)?)s\"");
+
+    /**
+     * Time source; tests drive it by hand.
+     */
+    interface Clock {
+        // Monotonic milliseconds, for pacing
+        long elapsedMs();
+
+        // Wall-clock milliseconds, for Retry-After dates
+        long currentTimeMs();
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long elapsedMs() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        }
+
+        @Override
+        public long currentTimeMs() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    private final ScheduledExecutorService executor;
+    private final Clock clock;
+    private final AtomicLong submitted = new AtomicLong();
+    private final Random random = new Random();
+
+    // Confined to the executor thread
+    private final PriorityQueue<Job<?>> queue = new PriorityQueue<>();
+    private double tokensPerMs;
+    private int burst;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+    private boolean drainScheduled;
+
+    public GeminiCallScheduler() {
+        this(Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gemini-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        }), SYSTEM_CLOCK);
+    }
+
+    /**
+     * @param executor single-threaded; all queue state is confined to it
+     */
+    GeminiCallScheduler(ScheduledExecutorService executor, Clock clock) {
+        this.executor = executor;
+        this.clock = clock;
+        executor.execute(() -> {
+            setRate(DEFAULT_REQUESTS_PER_MINUTE, DEFAULT_BURST);
+            tokens = burst;
+            refilledAt = now();
+        });
+    }
+
+    /**
+     * Sets the sustained request rate and how many requests may go out back to back.
+     */
+    public void configure(int requestsPerMinute, int burst) {
+        if (requestsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        executor.execute(() -> {
+            refill(now());
+            setRate(requestsPerMinute, burst);
+            tokens = Math.min(tokens, burst);
+            drain();
+        });
+    }
+
+    /**
+     * Queues {@code call}; it is started once the rate limit allows and no request of a higher
+     * priority is waiting.
+     */
+    public <T> Ticket enqueue(Call<T> call, Priority priority, Callback<T> callback) {
+        Job<T> job = new Job<>(call, priority, callback);
+        executor.execute(() -> {
+            queue.add(job);
+            drain();
+        });
+        return job;
+    }
+
+    private void setRate(int requestsPerMinute, int burst) {
+        this.tokensPerMs = requestsPerMinute / 60_000.0;
+        this.burst = burst;
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerMs);
+            refilledAt = now;
+        }
+    }
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            Job<?> job = queue.peek();
+            if (job.canceled) {
+                queue.poll();
+                job.failCanceled();
+                continue;
+            }
+            long now = now();
+            if (now < pausedUntil) {
+                scheduleDrain(pausedUntil - now);
+                return;
+            }
+            refill(now);
+            if (tokens < 1) {
+                scheduleDrain((long) Math.ceil((1 - tokens) / tokensPerMs));
+                return;
+            }
+            tokens -= 1;
+            queue.poll();
+            job.start(now);
+        }
+    }
+
+    private void scheduleDrain(long delayMs) {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        executor.schedule(() -> {
+            drainScheduled = false;
+            drain();
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Holds back every queued request for {@code delayMs}, since each would get the same 429.
+     * Afterwards one request goes out and the rest follow at the sustained rate, not as a burst.
+     */
+    private void pause(long delayMs) {
+        pausedUntil = Math.max(pausedUntil, now() + delayMs);
+        tokens = 1;
+        refilledAt = pausedUntil;
+    }
+
+    private void retryLater(Job<?> job, long delayMs, boolean pauseQueue) {
+        executor.execute(() -> {
+            if (pauseQueue) {
+                pause(delayMs);
+                // Back in line right away, keeping its place ahead of later requests
+                queue.add(job);
+                drain();
+                return;
+            }
+            executor.schedule(() -> {
+                queue.add(job);
+                drain();
+            }, delayMs, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Exponential backoff with jitter, so clients that failed together don't retry together.
+     */
+    private long backoff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 1, 16));
+        synchronized (random) {
+            return ceiling / 2 + (long) (random.nextDouble() * (ceiling / 2));
+        }
+    }
+
+    private static boolean isRetryable(int code) {
+        return code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    /**
+     * How long the server asked us to wait, or 0 if it didn't say.
+     * The error body is peeked, so the caller can still read it.
+     */
+    private long serverDelay(Response<?> response) {
+        String retryAfter = response.headers().get("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                Date date = response.headers().getDate("Retry-After");
+                if (date != null) {
+                    return Math.max(0, date.getTime() - clock.currentTimeMs());
+                }
+            }
+        }
+        ResponseBody errorBody = response.errorBody();
+        if (errorBody != null) {
+            try {
+                Matcher matcher = RETRY_DELAY.matcher(errorBody.source().peek().readUtf8());
+                if (matcher.find()) {
+                    return (long) (Double.parseDouble(matcher.group(1)) * 1000);
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Could not read the error body", e);
+            }
+        }
+        return 0;
+    }
+
+    private long now() {
+        return clock.elapsedMs();
+    }
+
+    private final class Job<T> implements Callback<T>, Ticket, Comparable<Job<?>> {
+        final Priority priority;
+        final long order;
+        final Callback<T> callback;
+        volatile Call<T> call;
+        volatile boolean canceled;
+        // Attempts started so far; only touched by whichever thread owns the job at the time
+        int attempts;
+        long queuedAt;
+
+        Job(Call<T> call, Priority priority, Callback<T> callback) {
+            this.call = call;
+            this.priority = priority;
+            this.callback = callback;
+            this.order = submitted.getAndIncrement();
+            this.queuedAt = now();
+        }
+
+        @Override
+        public int compareTo(Job<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+
+        void start(long now) {
+            attempts++;
+            long waited = now - queuedAt;
+            // Only worth noting when the rate limit held it back
+            if (waited >= 1000) {
+                Log.d(TAG, priority + " request waited " + waited + " ms (attempt " + attempts + ")");
+            }
+            call.enqueue(this);
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            call.cancel();
+            executor.execute(() -> {
+                if (queue.remove(this)) {
+                    failCanceled();
+                }
+            });
+        }
+
+        void failCanceled() {
+            call.cancel();
+            callback.onFailure(call, new IOException("Canceled"));
+        }
+
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            if (!response.isSuccessful() && isRetryable(response.code())) {
+                boolean rateLimited = response.code() == 429;
+                long delay = Math.max(backoff(attempts), serverDelay(response));
+                if (delay <= MAX_RETRY_DELAY_MS && canRetry(call)) {
+                    Log.w(TAG, "HTTP " + response.code() + ", retrying in " + delay + " ms");
+                    ResponseBody errorBody = response.errorBody();
+                    if (errorBody != null) {
+                        errorBody.close();
+                    }
+                    retry(delay, rateLimited);
+                    return;
+                }
+                if (rateLimited) {
+                    // This request gives up, but the rest of the queue would hit the same limit
+                    Log.w(TAG, "HTTP 429, pausing the queue for " + delay + " ms");
+                    executor.execute(() -> pause(delay));
+                }
+            }
+            callback.onResponse(call, response);
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable t) {
+            if (t instanceof IOException && canRetry(call)) {
+                long delay = backoff(attempts);
+                Log.w(TAG, "Request failed (" + t.getMessage() + "), retrying in " + delay + " ms");
+                retry(delay, false);
+                return;
+            }
+            callback.onFailure(call, t);
+        }
+
+        private boolean canRetry(Call<T> call) {
+            return attempts < MAX_ATTEMPTS && !canceled && !call.isCanceled();
+        }
+
+        private void retry(long delayMs, boolean pauseQueue) {
+            // Set before requeueing, so a cancel() from now on reaches the new call
+            call = call.clone();
+            queuedAt = now() + delayMs;
+            retryLater(this, delayMs, pauseQueue);
+        }
+    }
+}
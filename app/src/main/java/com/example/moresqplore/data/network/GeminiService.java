@@ -1,11 +1,12 @@
 package com.example.moresqplore.data.network;
 // app/src/main/java/com/example/moresqplore/data/network/GeminiService.java
-import com.google.gson.JsonObject;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * Retrofit interface for Google Gemini API communication.
@@ -30,11 +31,14 @@ public interface GeminiService {
 
     /**
      * Generates content with streaming enabled for real-time responses.
-     * Useful for showing partial responses as they are generated.
+     * With {@code alt=sse} the body is a server-sent event stream, one partial
+     * response per event; read it with {@link GeminiStreamReader} as it arrives.
      */
+    @Streaming
     @POST("v1beta/models/{model}:streamGenerateContent")
-    Call<retrofit2.Response<okhttp3.ResponseBody>> streamGenerateContent(
+    Call<ResponseBody> streamGenerateContent(
             @Path("model") String model,
+            @Query("alt") String alt,
             @Query("key") String key,
             @Body GeminiModels.GenerateContentRequest request
     );
@@ -0,0 +1,107 @@
+package com.example.moresqplore.data.network;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Reads a Gemini {@code streamGenerateContent?alt=sse} response body while it is still arriving.
+ *
+ * Every server-sent event carries one {@link GeminiModels.GenerateContentResponse} whose
+ * first candidate holds the next slice of the answer. Slices are handed to the listener as
+ * soon as their event is complete, so the caller can render text before generation ends.
+ */
+public class GeminiStreamReader {
+
+    private static final String DATA_PREFIX = "data:";
+
+    /**
+     * Receives the answer as it is generated; called on the reading thread.
+     */
+    public interface Listener {
+        void onText(String delta);
+    }
+
+    /**
+     * The API reported an error inside the stream (e.g. quota exhausted mid-answer).
+     */
+    public static class StreamException extends IOException {
+        private final GeminiModels.ApiError apiError;
+
+        StreamException(GeminiModels.ApiError apiError) {
+            super(apiError.getMessage() != null ? apiError.getMessage() : "Gemini stream error");
+            this.apiError = apiError;
+        }
+
+        public GeminiModels.ApiError getApiError() { return apiError; }
+    }
+
+    private final Gson gson;
+
+    public GeminiStreamReader(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Reads events until the body ends.
+     *
+     * @return the finish reason of the last candidate (e.g. "STOP", "MAX_TOKENS"), or null
+     */
+    public String read(Reader body, Listener listener) throws IOException {
+        BufferedReader reader = body instanceof BufferedReader ? (BufferedReader) body : new BufferedReader(body);
+        StringBuilder data = new StringBuilder();
+        String finishReason = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                // A blank line ends the event
+                finishReason = dispatch(data, listener, finishReason);
+            } else if (line.startsWith(DATA_PREFIX)) {
+                if (data.length() > 0) {
+                    data.append('\n');
+                }
+                data.append(line, line.startsWith("data: ") ? 6 : DATA_PREFIX.length(), line.length());
+            }
+            // Comments (":") and other SSE fields carry nothing for us
+        }
+        return dispatch(data, listener, finishReason);
+    }
+
+    private String dispatch(StringBuilder data, Listener listener, String finishReason) throws IOException {
+        if (data.length() == 0) {
+            return finishReason;
+        }
+        GeminiModels.GenerateContentResponse event;
+        try {
+            event = gson.fromJson(data.toString(), GeminiModels.GenerateContentResponse.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Malformed stream event", e);
+        } finally {
+            data.setLength(0);
+        }
+        if (event == null) {
+            return finishReason;
+        }
+        if (event.getError() != null) {
+            throw new StreamException(event.getError());
+        }
+
+        List<GeminiModels.Candidate> candidates = event.getCandidates();
+        if (candidates == null || candidates.isEmpty()) {
+            return finishReason;
+        }
+        GeminiModels.Candidate candidate = candidates.get(0);
+        if (candidate.getContent() != null && candidate.getContent().getParts() != null) {
+            for (GeminiModels.Part part : candidate.getContent().getParts()) {
+                if (part.getText() != null && !part.getText().isEmpty()) {
+                    listener.onText(part.getText());
+                }
+            }
+        }
+        return candidate.getFinishReason() != null ? candidate.getFinishReason() : finishReason;
+    }
+}
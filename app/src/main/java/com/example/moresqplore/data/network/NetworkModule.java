@@ -0,0 +1,215 @@
+package com.example.moresqplore.data.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.moresqplore.BuildConfig;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Single owner of the app's HTTP stack.
+ *
+ * Every backend shares one OkHttpClient, and with it one connection pool (so TLS
+ * sessions and sockets are reused), one dispatcher and one disk HTTP cache.
+ * HTTP/2 is negotiated where the server supports it and gzip is handled
+ * transparently by OkHttp. Per-backend clients are derived with newBuilder(),
+ * which only overrides timeouts/interceptors and keeps the shared resources.
+ */
+public class NetworkModule {
+
+    private static final String TAG = "NetworkModule";
+
+    public static final String SUPABASE_BASE_URL = "https://nnipiussbpgiugauhfgg.supabase.co/rest/v1/";
+    public static final String OSRM_BASE_URL = "https://router.project-osrm.org/";
+    public static final String WIKIPEDIA_BASE_URL = "https://en.wikipedia.org/api/rest_v1/";
+    public static final String GEMINI_BASE_URL = "https://generativelanguage.googleapis.com/";
+    public static final String EXCHANGE_RATE_BASE_URL = "https://v6.exchangerate-api.com/v6/";
+
+    private static final long HTTP_CACHE_SIZE_BYTES = 20L * 1024 * 1024;
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final int DEFAULT_MAX_REQUESTS = 32;
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 6;
+    private static final int CONNECT_TIMEOUT = 15;
+    private static final int READ_TIMEOUT = 20;
+
+    // Gemini generates whole answers server-side before replying
+    private static final int GEMINI_READ_TIMEOUT = 60;
+    private static final int GEMINI_WRITE_TIMEOUT = 30;
+
+    // Gemini callbacks read streamed bodies, which blocks, so they must not run on the main thread
+    private static final Executor GEMINI_CALLBACK_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "gemini-callback");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static Context appContext;
+    private static volatile OkHttpClient sharedClient;
+    private static volatile Retrofit supabaseRetrofit;
+    private static volatile Retrofit osrmRetrofit;
+    private static volatile Retrofit wikipediaRetrofit;
+    private static volatile Retrofit geminiRetrofit;
+    private static volatile Retrofit exchangeRateRetrofit;
+
+    private static int maxRequests = DEFAULT_MAX_REQUESTS;
+    private static int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+
+    private NetworkModule() {
+        // Static access only
+    }
+
+    /**
+     * Provides the context used to locate the disk HTTP cache.
+     * Called once from {@link com.example.moresqplore.MoresQploreApplication}.
+     */
+    public static synchronized void initialize(Context context) {
+        if (context != null) {
+            appContext = context.getApplicationContext();
+        }
+    }
+
+    /**
+     * Adjusts dispatcher concurrency. Applies immediately if the client already exists.
+     */
+    public static synchronized void configureDispatcher(int maxRequests, int maxRequestsPerHost) {
+        NetworkModule.maxRequests = maxRequests;
+        NetworkModule.maxRequestsPerHost = maxRequestsPerHost;
+        if (sharedClient != null) {
+            sharedClient.dispatcher().setMaxRequests(maxRequests);
+            sharedClient.dispatcher().setMaxRequestsPerHost(maxRequestsPerHost);
+        }
+    }
+
+    /**
+     * Returns the shared OkHttpClient. Derive variants with {@code newBuilder()}.
+     */
+    public static OkHttpClient getOkHttpClient() {
+        if (sharedClient == null) {
+            synchronized (NetworkModule.class) {
+                if (sharedClient == null) {
+                    sharedClient = createSharedClient();
+                }
+            }
+        }
+        return sharedClient;
+    }
+
+    public static Retrofit getSupabaseRetrofit() {
+        if (supabaseRetrofit == null) {
+            synchronized (NetworkModule.class) {
+                if (supabaseRetrofit == null) {
+                    supabaseRetrofit = createRetrofit(SUPABASE_BASE_URL, getOkHttpClient());
+                }
+            }
+        }
+        return supabaseRetrofit;
+    }
+
+    public static Retrofit getOsrmRetrofit() {
+        if (osrmRetrofit == null) {
+            synchronized (NetworkModule.class) {
+                if (osrmRetrofit == null) {
+                    osrmRetrofit = createRetrofit(OSRM_BASE_URL, getOkHttpClient());
+                }
+            }
+        }
+        return osrmRetrofit;
+    }
+
+    public static Retrofit getWikipediaRetrofit() {
+        if (wikipediaRetrofit == null) {
+            synchronized (NetworkModule.class) {
+                if (wikipediaRetrofit == null) {
+                    wikipediaRetrofit = createRetrofit(WIKIPEDIA_BASE_URL, getOkHttpClient());
+                }
+            }
+        }
+        return wikipediaRetrofit;
+    }
+
+    /**
+     * Gemini gets a longer read timeout and, in debug builds, body logging (except for streams).
+     * Its callbacks run on a background executor rather than the main thread, so they can read
+     * a streamed body as it arrives; they must post any UI updates themselves.
+     */
+    public static Retrofit getGeminiRetrofit() {
+        if (geminiRetrofit == null) {
+            synchronized (NetworkModule.class) {
+                if (geminiRetrofit == null) {
+                    OkHttpClient.Builder builder = getOkHttpClient().newBuilder()
+                            .readTimeout(GEMINI_READ_TIMEOUT, TimeUnit.SECONDS)
+                            .writeTimeout(GEMINI_WRITE_TIMEOUT, TimeUnit.SECONDS);
+                    if (BuildConfig.DEBUG) {
+                        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
+                        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+                        // Body logging reads the whole response first, which would hold back a stream
+                        builder.addInterceptor(chain -> chain.request().url().encodedPath().endsWith(":streamGenerateContent")
+                                ? chain.proceed(chain.request())
+                                : loggingInterceptor.intercept(chain));
+                    }
+                    geminiRetrofit = createRetrofit(GEMINI_BASE_URL, builder.build()).newBuilder()
+                            .callbackExecutor(GEMINI_CALLBACK_EXECUTOR)
+                            .build();
+                }
+            }
+        }
+        return geminiRetrofit;
+    }
+
+    public static Retrofit getExchangeRateRetrofit() {
+        if (exchangeRateRetrofit == null) {
+            synchronized (NetworkModule.class) {
+                if (exchangeRateRetrofit == null) {
+                    exchangeRateRetrofit = createRetrofit(EXCHANGE_RATE_BASE_URL, getOkHttpClient());
+                }
+            }
+        }
+        return exchangeRateRetrofit;
+    }
+
+    private static OkHttpClient createSharedClient() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT, TimeUnit.SECONDS)
+                .retryOnConnectionFailure(true);
+
+        if (appContext != null) {
+            File cacheDir = new File(appContext.getCacheDir(), "http_cache");
+            builder.cache(new Cache(cacheDir, HTTP_CACHE_SIZE_BYTES));
+        } else {
+            Log.w(TAG, "NetworkModule not initialized, HTTP disk cache disabled");
+        }
+
+        return builder.build();
+    }
+
+    private static Retrofit createRetrofit(String baseUrl, OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.moresqplore.data.network;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Single-flight layer for Retrofit calls.
+ *
+ * Callers asking for the same key while a request is in flight share that request
+ * instead of opening a new one; every subscriber receives the same response.
+ * The key must identify both endpoint and arguments (e.g. "places:city:Fes").
+ * Once all subscribers of an in-flight request cancel, the underlying call is cancelled.
+ */
+public class RequestCoalescer {
+
+    private static final String TAG = "RequestCoalescer";
+
+    /**
+     * Handle returned to each caller; cancelling only detaches that caller.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private final Map<String, InFlight<?>> inFlight = new HashMap<>();
+
+    /**
+     * Subscribes to the request for {@code key}, starting it with {@code callFactory}
+     * only if no identical request is already running.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Subscription enqueue(String key, Supplier<Call<T>> callFactory, Callback<T> callback) {
+        InFlight<T> request;
+        boolean start = false;
+        synchronized (this) {
+            request = (InFlight<T>) inFlight.get(key);
+            if (request == null) {
+                request = new InFlight<>(key, callFactory.get());
+                inFlight.put(key, request);
+                start = true;
+            } else {
+                Log.d(TAG, "Joining in-flight request: " + key);
+            }
+            request.subscribers.add(callback);
+        }
+        if (start) {
+            request.call.enqueue(request);
+        }
+        InFlight<T> subscribed = request;
+        return () -> unsubscribe(subscribed, callback);
+    }
+
+    /**
+     * Number of distinct requests currently on the wire.
+     */
+    public synchronized int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private <T> void unsubscribe(InFlight<T> request, Callback<T> callback) {
+        boolean cancelCall = false;
+        synchronized (this) {
+            if (!request.subscribers.remove(callback) || request.completed) {
+                return;
+            }
+            if (request.subscribers.isEmpty()) {
+                inFlight.remove(request.key);
+                cancelCall = true;
+            }
+        }
+        if (cancelCall) {
+            Log.d(TAG, "Cancelling request with no subscribers left: " + request.key);
+            request.call.cancel();
+        }
+    }
+
+    /**
+     * Takes the request out of the in-flight map and returns its subscribers,
+     * so later callers with the same key start a fresh request.
+     */
+    private synchronized <T> List<Callback<T>> complete(InFlight<T> request) {
+        request.completed = true;
+        if (inFlight.get(request.key) == request) {
+            inFlight.remove(request.key);
+        }
+        return new ArrayList<>(request.subscribers);
+    }
+
+    private final class InFlight<T> implements Callback<T> {
+        final String key;
+        final Call<T> call;
+        final List<Callback<T>> subscribers = new ArrayList<>();
+        boolean completed;
+
+        InFlight(String key, Call<T> call) {
+            this.key = key;
+            this.call = call;
+        }
+
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            for (Callback<T> subscriber : complete(this)) {
+                subscriber.onResponse(call, response);
+            }
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable t) {
+            for (Callback<T> subscriber : complete(this)) {
+                subscriber.onFailure(call, t);
+            }
+        }
+    }
+}
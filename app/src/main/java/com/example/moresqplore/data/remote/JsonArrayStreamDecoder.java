@@ -0,0 +1,73 @@
+package com.example.moresqplore.data.remote;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a JSON array response element by element with {@link JsonReader}
+ * and hands elements to the caller in fixed-size chunks.
+ *
+ * Unlike a converter that builds the whole list first, at most one chunk is
+ * held in memory and the first chunk is delivered while the rest of the body
+ * is still downloading. Use with a {@code @Streaming} Retrofit call.
+ */
+public class JsonArrayStreamDecoder<T> {
+
+    /**
+     * Receives decoded chunks on the decoding thread; returning normally requests the next chunk.
+     */
+    public interface ChunkConsumer<T> {
+        void accept(List<T> chunk) throws IOException;
+    }
+
+    private final Gson gson;
+    private final Class<T> type;
+    private final int chunkSize;
+
+    public JsonArrayStreamDecoder(Gson gson, Class<T> type, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.gson = gson;
+        this.type = type;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the whole array from {@code body}, closing it when done.
+     *
+     * @return number of elements decoded
+     */
+    public int decode(Reader body, ChunkConsumer<T> consumer) throws IOException {
+        int total = 0;
+        try (JsonReader reader = new JsonReader(body)) {
+            if (reader.peek() == JsonToken.NULL) {
+                return 0;
+            }
+            List<T> chunk = new ArrayList<>(chunkSize);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                T element = gson.fromJson(reader, type);
+                if (element != null) {
+                    chunk.add(element);
+                    total++;
+                }
+                if (chunk.size() == chunkSize) {
+                    consumer.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            reader.endArray();
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+        }
+        return total;
+    }
+}
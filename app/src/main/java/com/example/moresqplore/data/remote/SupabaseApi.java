@@ -3,6 +3,7 @@ package com.example.moresqplore.data.remote;
 import com.example.moresqplore.data.model.City;
 import com.example.moresqplore.data.model.HistoryEvent;
 import com.example.moresqplore.data.model.Place;
+import com.example.moresqplore.data.model.PlaceSummary;
 
 import java.util.List;
 import retrofit2.Call;
@@ -21,6 +22,23 @@ public interface SupabaseApi {
         @Query("select") String select // e.g., "*"
     );
 
+    // City bundle: filters carry name plus an embedding select, e.g. "*,history_timeline(*),city_gallery(*)"
+    @GET("cities")
+    Call<List<City>> getCityBundle(
+        @Header("apikey") String apiKey,
+        @Header("Authorization") String authorization,
+        @retrofit2.http.QueryMap java.util.Map<String, String> filters
+    );
+
+    // Conditional city fetch for delta sync; filters carry name and updated_at=gt.<cursor>
+    @GET("cities")
+    Call<List<City>> syncCities(
+        @Header("apikey") String apiKey,
+        @Header("Authorization") String authorization,
+        @Header("If-None-Match") String etag, // null when no ETag is known
+        @retrofit2.http.QueryMap java.util.Map<String, String> filters
+    );
+
     // Fetch history for a city
     @GET("history_timeline")
     Call<List<HistoryEvent>> getHistoryByCityId(
@@ -56,6 +74,14 @@ public interface SupabaseApi {
         @Query("id") String idQuery // e.g., "eq.<UUID>"
     );
     
+    // Get several places in one request
+    @GET("places")
+    Call<List<Place>> getPlacesByIds(
+        @Header("apikey") String apiKey,
+        @Header("Authorization") String authorization,
+        @Query("id") String idFilter // e.g., "in.(<UUID>,<UUID>)"
+    );
+    
     // Get top rated places
     @GET("places")
     Call<List<Place>> getTopRatedPlaces(
@@ -65,26 +91,55 @@ public interface SupabaseApi {
         @Query("limit") int limit
     );
     
-    // Search places (simple text search on name)
+    // Conditional place fetch for delta sync; a 304 means nothing changed since the ETag
+    @GET("places")
+    Call<List<Place>> syncPlaces(
+        @Header("apikey") String apiKey,
+        @Header("Authorization") String authorization,
+        @Header("If-None-Match") String etag, // null when no ETag is known
+        @retrofit2.http.QueryMap java.util.Map<String, String> filters
+    );
+    
+    // One keyset page of places; filters carry order, limit and the "after" cursor
+    @GET("places")
+    Call<List<Place>> getPlacesPage(
+        @Header("apikey") String apiKey,
+        @Header("Authorization") String authorization,
+        @retrofit2.http.QueryMap java.util.Map<String, String> filters
+    );
+    
+    // Place summaries for lists and maps; filters must include select=PlaceSummary.SELECT_COLUMNS
+    @GET("places")
+    Call<List<PlaceSummary>> getPlaceSummaries(
+        @Header("apikey") String apiKey,
+        @Header("Authorization") String authorization,
+        @retrofit2.http.QueryMap java.util.Map<String, String> filters
+    );
+    
+    // Raw, unbuffered place rows for bulk loads; decode with JsonArrayStreamDecoder
+    @retrofit2.http.Streaming
+    @GET("places")
+    Call<okhttp3.ResponseBody> streamPlaces(
+        @Header("apikey") String apiKey,
+        @Header("Authorization") String authorization,
+        @retrofit2.http.QueryMap java.util.Map<String, String> filters
+    );
+    
+    // Search places by name or city; filters carry e.g. or=(name.ilike.*fes*,city.ilike.*fes*)
     @GET("places")
     Call<List<Place>> searchPlaces(
         @Header("apikey") String apiKey,
         @Header("Authorization") String authorization,
-        @Query("name") String nameFilter // e.g., "ilike.%query%"
+        @retrofit2.http.QueryMap java.util.Map<String, String> filters
     );
 
     // Nearby places (Bounding Box)
+    // PostgREST cannot repeat a column in separate @Query params, so the box is sent
+    // as a single "and" filter, e.g. and=(latitude.gte.31.5,latitude.lte.31.7,...)
     @GET("places")
     Call<List<Place>> getNearbyPlaces(
         @Header("apikey") String apiKey,
         @Header("Authorization") String authorization,
-        @Query("latitude") String latFilter, // e.g., "gte.minLat&latitude=lte.maxLat" - Wait, Retrofit handles multiple queries with same key? 
-        // Retrofit QueryMap is better for multiple filters on same field if needed, or simply pass "gte.min"
-        // Actually for bounding box we need: latitude=gte.MIN & latitude=lte.MAX.
-        // Retrofit doesn't support multiple @Query with same name easily unless List.
-        // OR we can use @QueryMap.
-        // Let's use @QueryMap for flexible filtering.
         @retrofit2.http.QueryMap java.util.Map<String, String> filters
     );
 }
-
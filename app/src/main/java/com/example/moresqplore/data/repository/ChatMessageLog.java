@@ -0,0 +1,203 @@
+package com.example.moresqplore.data.repository;
+
+import com.example.moresqplore.data.model.ChatMessage;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory message log of the current conversation, shared by the UI thread and OkHttp callbacks.
+ *
+ * The log is an immutable linked list, newest message first, behind one AtomicReference.
+ * Appending is a single compare-and-set of the head. It is O(1) and lock-free, and a message
+ * appended concurrently is never lost. Every change produces a new {@link Snapshot}, numbered
+ * by a sequence that grows with each change, so a snapshot handed to the UI never changes
+ * afterwards. Only recent messages are kept (the full conversation is in Room): a snapshot shows
+ * at most the newest {@code capacity} messages. Older nodes stay linked until the chain reaches
+ * twice the capacity and is cut back, which keeps appends O(1) amortized.
+ */
+final class ChatMessageLog {
+
+    private static final class Node {
+        final ChatMessage message;
+        final Node previous;
+        // Number of messages from this node to the oldest one kept
+        final int depth;
+
+        Node(ChatMessage message, Node previous) {
+            this.message = message;
+            this.previous = previous;
+            this.depth = previous != null ? previous.depth + 1 : 1;
+        }
+    }
+
+    /**
+     * Immutable view of the newest messages at one sequence number, oldest message first.
+     */
+    static final class Snapshot extends AbstractList<ChatMessage> implements RandomAccess {
+        final long sequence;
+        private final Node head;
+        private final int size;
+        // Built on first indexed access; every thread would build the same array
+        private volatile ChatMessage[] items;
+
+        private Snapshot(long sequence, Node head, int capacity) {
+            this.sequence = sequence;
+            this.head = head;
+            this.size = head != null ? Math.min(head.depth, capacity) : 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public ChatMessage get(int index) {
+            return items()[index];
+        }
+
+        /**
+         * Newest message, without building the indexed view.
+         */
+        ChatMessage last() {
+            return head != null ? head.message : null;
+        }
+
+        private ChatMessage[] items() {
+            ChatMessage[] result = items;
+            if (result == null) {
+                result = new ChatMessage[size()];
+                Node node = head;
+                for (int i = result.length - 1; i >= 0; i--) {
+                    result[i] = node.message;
+                    node = node.previous;
+                }
+                items = result;
+            }
+            return result;
+        }
+    }
+
+    private final int capacity;
+    private final AtomicReference<Snapshot> state;
+
+    /**
+     * @param capacity number of newest messages kept and shown in snapshots
+     */
+    ChatMessageLog(int capacity) {
+        this.capacity = capacity;
+        this.state = new AtomicReference<>(new Snapshot(0, null, capacity));
+    }
+
+    Snapshot snapshot() {
+        return state.get();
+    }
+
+    Snapshot append(ChatMessage message) {
+        while (true) {
+            Snapshot current = state.get();
+            Node previous = current.head;
+            if (previous != null && previous.depth >= 2 * capacity) {
+                previous = chain(newest(previous, capacity - 1));
+            }
+            Snapshot next = new Snapshot(current.sequence + 1, new Node(message, previous), capacity);
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Swaps in a new version of the message with the same id (e.g. a longer streamed answer).
+     * Costs one node per message appended after it, usually none.
+     *
+     * @return the new snapshot, or null if the message is no longer in the log
+     */
+    Snapshot replace(ChatMessage message) {
+        return update(message.getId(), message);
+    }
+
+    /**
+     * @return the new snapshot, or null if the message is no longer in the log
+     */
+    Snapshot remove(String messageId) {
+        return update(messageId, null);
+    }
+
+    /**
+     * Replaces the whole log, e.g. when a conversation is cleared or restored.
+     */
+    Snapshot reset(List<ChatMessage> messages) {
+        Node head = chain(messages);
+        while (true) {
+            Snapshot current = state.get();
+            Snapshot next = new Snapshot(current.sequence + 1, head, capacity);
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Replaces the whole log only if nothing changed since {@code expected} was taken.
+     *
+     * @return the new snapshot, or null if the log moved on
+     */
+    Snapshot resetIfUnchanged(Snapshot expected, List<ChatMessage> messages) {
+        Snapshot next = new Snapshot(expected.sequence + 1, chain(messages), capacity);
+        return state.compareAndSet(expected, next) ? next : null;
+    }
+
+    private Snapshot update(String messageId, ChatMessage replacement) {
+        while (true) {
+            Snapshot current = state.get();
+            List<ChatMessage> newer = new ArrayList<>();
+            Node node = current.head;
+            // Only the messages a snapshot shows count as in the log
+            while (node != null && newer.size() < capacity && !messageId.equals(node.message.getId())) {
+                newer.add(node.message);
+                node = node.previous;
+            }
+            if (node == null || newer.size() == capacity) {
+                return null;
+            }
+            Node head = replacement != null ? new Node(replacement, node.previous) : node.previous;
+            for (int i = newer.size() - 1; i >= 0; i--) {
+                head = new Node(newer.get(i), head);
+            }
+            Snapshot next = new Snapshot(current.sequence + 1, head, capacity);
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * The newest {@code count} messages of the chain, oldest first.
+     */
+    private static List<ChatMessage> newest(Node head, int count) {
+        ChatMessage[] messages = new ChatMessage[Math.min(count, head.depth)];
+        Node node = head;
+        for (int i = messages.length - 1; i >= 0; i--) {
+            messages[i] = node.message;
+            node = node.previous;
+        }
+        return Arrays.asList(messages);
+    }
+
+    /**
+     * Links messages (oldest first) into a fresh chain holding at most {@code capacity} of them.
+     */
+    private Node chain(List<ChatMessage> messages) {
+        Node head = null;
+        for (int i = Math.max(0, messages.size() - capacity); i < messages.size(); i++) {
+            head = new Node(messages.get(i), head);
+        }
+        return head;
+    }
+}
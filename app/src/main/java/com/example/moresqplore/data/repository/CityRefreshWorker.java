@@ -0,0 +1,83 @@
+package com.example.moresqplore.data.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.ListenableWorker;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.WorkerParameters;
+
+import com.example.moresqplore.data.model.City;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background refresh of one stored city, scheduled by {@link CityRepository} when its copy is stale.
+ * The refresh only writes Room; screens observing the city pick the change up from there.
+ */
+public class CityRefreshWorker extends ListenableWorker {
+
+    private static final String TAG = "CityRefreshWorker";
+    private static final String KEY_CITY_NAME = "city_name";
+    private static final int MAX_ATTEMPTS = 3;
+
+    public CityRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules a refresh of {@code cityName}; one is kept per city and network type, so repeated
+     * calls are free and never restart a refresh that is already running. A very stale copy gets
+     * its own any-network refresh rather than waiting behind a pending unmetered one.
+     *
+     * @param unmeteredOnly wait for an unmetered network
+     */
+    static void enqueue(Context context, String cityName, boolean unmeteredOnly) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(unmeteredOnly ? NetworkType.UNMETERED : NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(CityRefreshWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .setInputData(new Data.Builder().putString(KEY_CITY_NAME, cityName).build())
+                .build();
+        String workName = (unmeteredOnly ? "city-refresh-unmetered:" : "city-refresh:") + cityName;
+        WorkManager.getInstance(context).enqueueUniqueWork(workName, ExistingWorkPolicy.KEEP, request);
+        Log.d(TAG, "Scheduled refresh for " + cityName + (unmeteredOnly ? " (unmetered)" : ""));
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<Result> startWork() {
+        SettableFuture<Result> result = SettableFuture.create();
+        String cityName = getInputData().getString(KEY_CITY_NAME);
+        if (cityName == null) {
+            result.set(Result.failure());
+            return result;
+        }
+
+        CityRepository.getInstance(getApplicationContext()).refreshCity(cityName, new CityRepository.CityCallback() {
+            @Override
+            public void onSuccess(City city) {
+                Log.d(TAG, "Refreshed " + cityName);
+                result.set(Result.success());
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Refresh failed for " + cityName + ": " + e.getMessage());
+                result.set(getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure());
+            }
+        });
+        return result;
+    }
+}
@@ -1,66 +1,362 @@
 package com.example.moresqplore.data.repository;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
 import com.example.moresqplore.data.local.AppDatabase;
+import com.example.moresqplore.data.local.CacheMetadata;
+import com.example.moresqplore.data.local.CacheMetadataDao;
 import com.example.moresqplore.data.local.CityDao;
+import com.example.moresqplore.data.local.CityWithDetails;
+import com.example.moresqplore.data.local.SyncCursor;
+import com.example.moresqplore.data.local.SyncCursorDao;
 import com.example.moresqplore.data.model.City;
+import com.example.moresqplore.data.model.CityGalleryImage;
 import com.example.moresqplore.data.model.HistoryEvent;
+import com.example.moresqplore.data.network.NetworkModule;
 import com.example.moresqplore.data.remote.SupabaseApi;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 public class CityRepository {
+    private static volatile CityRepository instance;
+
+    private final Context appContext;
     private final CityDao cityDao;
+    private final SyncCursorDao syncCursorDao;
+    private final CacheMetadataDao cacheMetadataDao;
     private final SupabaseApi supabaseApi;
-    private final ExecutorService executorService;
+    // Reads run on Room's query pool; writes go through its serial transaction executor so reads never wait on them
+    private final Executor queryExecutor;
+    private final Executor writeExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     
     // Config (Ideally move to BuildConfig)
-    private static final String SUPABASE_URL = "https://nnipiussbpgiugauhfgg.supabase.co/rest/v1/";
     private static final String SUPABASE_KEY = "sb_publishable_4osNsT6_rVjY_V-C6WBtEA_b4QiBkOw";
 
-    public interface CityCallback {
+    // City row with its timeline and gallery embedded through their city_id foreign keys
+    private static final String CITY_BUNDLE_SELECT = "*,history_timeline(*),city_gallery(*)";
+
+    // How long a stored city counts as fresh; older copies are shown and refreshed in the background
+    private static final long DEFAULT_CITY_MAX_AGE_MS = TimeUnit.HOURS.toMillis(12);
+    // Past this many TTLs the refresh no longer waits for an unmetered network
+    private static final int UNMETERED_WAIT_LIMIT = 4;
+    private static volatile long cityMaxAgeMs = DEFAULT_CITY_MAX_AGE_MS;
+
+    // Cleared when the server cannot embed; later loads go straight to separate requests
+    private volatile boolean embeddingSupported = true;
+
+    /**
+     * Completion of an internal load or refresh; called on a background thread.
+     */
+    interface CityCallback {
         void onSuccess(City city);
         void onError(Exception e);
     }
 
-    public CityRepository(Context context) {
-        AppDatabase db = AppDatabase.getDatabase(context);
+    public interface LoadErrorListener {
+        void onLoadError(Exception e);
+    }
+
+    private CityRepository(Context context) {
+        this.appContext = context.getApplicationContext();
+        AppDatabase db = AppDatabase.getDatabase(appContext);
         this.cityDao = db.cityDao();
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.syncCursorDao = db.syncCursorDao();
+        this.cacheMetadataDao = db.cacheMetadataDao();
+        this.queryExecutor = db.getQueryExecutor();
+        this.writeExecutor = db.getTransactionExecutor();
         
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(SUPABASE_URL)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-        this.supabaseApi = retrofit.create(SupabaseApi.class);
+        this.supabaseApi = NetworkModule.getSupabaseRetrofit().create(SupabaseApi.class);
+    }
+
+    public static CityRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CityRepository.class) {
+                if (instance == null) {
+                    instance = new CityRepository(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Sets how long a stored city is served without asking the server again.
+     */
+    public static void configureCacheTtl(long maxAge, TimeUnit unit) {
+        cityMaxAgeMs = unit.toMillis(maxAge);
+    }
+
+    /**
+     * Stored city with its timeline and gallery, backed by Room invalidation. Emits on the
+     * main thread, and only when the content actually changed (a refresh that rewrites
+     * identical rows does not rebind the screen). Null until the city is stored.
+     */
+    public LiveData<City> observeCity(String cityName) {
+        return Transformations.distinctUntilChanged(
+                Transformations.map(cityDao.observeCityWithDetails(cityName),
+                        stored -> stored != null ? stored.toCity() : null));
     }
 
-    public void getCityData(String cityName, CityCallback callback) {
-        // 1. Check Local DB asynchronously
-        executorService.execute(() -> {
+    /**
+     * Makes sure the city is stored: downloads it if missing, or schedules a background
+     * refresh if the stored copy is stale. Results arrive through {@link #observeCity};
+     * {@code onError} is called on the main thread only if nothing could be loaded.
+     */
+    public void loadCity(String cityName, LoadErrorListener onError) {
+        queryExecutor.execute(() -> {
             City localCity = cityDao.getCity(cityName);
             if (localCity != null) {
                 Log.d("CityRepository", "Found city in local DB: " + cityName);
-                callback.onSuccess(localCity);
-                // Optionally refresh in background
-                fetchFromSupabase(cityName, null); 
+                scheduleRefreshIfStale(cityName);
+                return;
+            }
+            Log.d("CityRepository", "City not found locally, fetching from Supabase: " + cityName);
+            fetchFromSupabase(cityName, null, new CityCallback() {
+                @Override
+                public void onSuccess(City city) {
+                    // Written to Room; observers of the city pick it up from there
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    mainHandler.post(() -> onError.onLoadError(e));
+                }
+            });
+        });
+    }
+
+    /**
+     * Refreshes a stored city now; used by {@link CityRefreshWorker}.
+     * The callback receives the stored city once the refresh has been written (or found unnecessary).
+     */
+    void refreshCity(String cityName, CityCallback callback) {
+        queryExecutor.execute(() -> {
+            City localCity = cityDao.getCity(cityName);
+            if (localCity != null) {
+                refreshIfChanged(localCity, callback);
             } else {
-                Log.d("CityRepository", "City not found locally, fetching from Supabase: " + cityName);
-                fetchFromSupabase(cityName, callback);
+                fetchFromSupabase(cityName, null, callback);
             }
         });
     }
 
-    private void fetchFromSupabase(String cityName, CityCallback callback) {
-        // 2. Fetch City Details
+    /**
+     * Leaves a fresh city alone and hands a stale one to WorkManager. Refreshes of the same
+     * city share one unique work request, and wait for an unmetered network unless the copy
+     * is more than {@link #UNMETERED_WAIT_LIMIT} TTLs old.
+     * Must be called on a database executor.
+     */
+    private void scheduleRefreshIfStale(String cityName) {
+        CacheMetadata metadata = cacheMetadataDao.get(cacheKey(cityName));
+        long maxAge = cityMaxAgeMs;
+        long now = System.currentTimeMillis();
+        if (metadata != null && metadata.isFresh(maxAge, now)) {
+            Log.d("CityRepository", "City is fresh, skipping refresh: " + cityName);
+            return;
+        }
+        boolean unmeteredOnly = metadata != null && metadata.isFresh(maxAge * UNMETERED_WAIT_LIMIT, now);
+        CityRefreshWorker.enqueue(appContext, cityName, unmeteredOnly);
+    }
+
+    private static String cacheKey(String cityName) {
+        return "city:" + cityName;
+    }
+
+    private void markFresh(String cityName) {
+        cacheMetadataDao.upsert(new CacheMetadata(cacheKey(cityName), System.currentTimeMillis()));
+    }
+
+    /**
+     * Asks Supabase for the city only if it changed after the cached copy
+     * (updated_at cursor plus If-None-Match). An unchanged city costs one small
+     * request instead of the city, history and gallery downloads.
+     * Must be called on a database executor.
+     */
+    private void refreshIfChanged(City localCity, CityCallback callback) {
+        String cityName = localCity.getName();
+        if (localCity.getUpdatedAt() == null) {
+            fetchFromSupabase(cityName, localCity.getId(), callback);
+            return;
+        }
+
+        String scope = "cities:" + cityName;
+        SyncCursor cursor = syncCursorDao.get(scope);
+        String etag = cursor != null ? cursor.getEtag() : null;
+        Map<String, String> filters = new HashMap<>();
+        filters.put("name", "eq." + cityName);
+        filters.put("updated_at", "gt." + localCity.getUpdatedAt());
+        if (embeddingSupported) {
+            filters.putAll(bundleFilters());
+        } else {
+            filters.put("select", "*");
+        }
+
+        String authHeader = "Bearer " + SUPABASE_KEY;
+        supabaseApi.syncCities(SUPABASE_KEY, authHeader, etag, filters).enqueue(new Callback<List<City>>() {
+            @Override
+            public void onResponse(Call<List<City>> call, Response<List<City>> response) {
+                if (response.code() == DeltaSync.NOT_MODIFIED) {
+                    Log.d("CityRepository", "City unchanged (304): " + cityName);
+                    confirmUnchanged(localCity, callback);
+                } else if (response.isSuccessful() && response.body() != null) {
+                    String newEtag = DeltaSync.etagOf(response);
+                    writeExecutor.execute(() ->
+                            syncCursorDao.upsert(new SyncCursor(scope, localCity.getUpdatedAt(), newEtag)));
+                    if (response.body().isEmpty()) {
+                        Log.d("CityRepository", "City unchanged since " + localCity.getUpdatedAt() + ": " + cityName);
+                        confirmUnchanged(localCity, callback);
+                    } else {
+                        refreshChangedCity(response.body().get(0), callback);
+                    }
+                } else {
+                    // e.g. no updated_at column upstream: refresh the old way
+                    Log.w("CityRepository", "Conditional city fetch failed (" + response.code() + "), refetching: " + cityName);
+                    fetchFromSupabase(cityName, localCity.getId(), callback);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<List<City>> call, Throwable t) {
+                Log.w("CityRepository", "Background city refresh failed: " + t.getMessage());
+                callback.onError(new Exception("Network error: " + t.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * The server confirmed the stored city is current: restart its TTL.
+     */
+    private void confirmUnchanged(City localCity, CityCallback callback) {
+        writeExecutor.execute(() -> {
+            markFresh(localCity.getName());
+            callback.onSuccess(localCity);
+        });
+    }
+
+    /**
+     * Stores a city returned by the conditional fetch, loading its parts if they were not embedded.
+     */
+    private void refreshChangedCity(City city, CityCallback callback) {
+        if (city.getHistoryEvents() != null && city.getGallery() != null) {
+            saveAndCallback(city, callback);
+            return;
+        }
+        CityBundle bundle = new CityBundle(3);
+        bundle.setCity(city);
+        fetchDetails(city.getId(), bundle, callback);
+    }
+
+    /**
+     * Downloads the city with its timeline and gallery in one round trip using PostgREST
+     * resource embedding. Falls back to separate requests, run concurrently, if the
+     * server rejects the embedding.
+     *
+     * @param knownCityId id of the cached copy, lets the fallback start all three requests at once
+     */
+    private void fetchFromSupabase(String cityName, String knownCityId, CityCallback callback) {
+        if (!embeddingSupported) {
+            fetchSeparately(cityName, knownCityId, callback);
+            return;
+        }
+
+        String authHeader = "Bearer " + SUPABASE_KEY;
+        Map<String, String> filters = bundleFilters();
+        filters.put("name", "eq." + cityName);
+
+        supabaseApi.getCityBundle(SUPABASE_KEY, authHeader, filters).enqueue(new Callback<List<City>>() {
+            @Override
+            public void onResponse(Call<List<City>> call, Response<List<City>> response) {
+                if (response.isSuccessful() && response.body() != null && !response.body().isEmpty()) {
+                    City city = response.body().get(0);
+                    Log.d("CityRepository", "Fetched city bundle: " + city.getName()
+                            + " (" + sizeOf(city.getHistoryEvents()) + " events, "
+                            + sizeOf(city.getGallery()) + " images)");
+                    saveAndCallback(city, callback);
+                } else if (response.isSuccessful()) {
+                    Log.e("CityRepository", "City not found in Supabase: " + cityName);
+                    if (callback != null) {
+                        callback.onError(new Exception("City not found in Supabase: " + cityName));
+                    }
+                } else {
+                    // 400 (PGRST200) means no relationship to embed; don't ask again this session
+                    if (response.code() == 400) {
+                        embeddingSupported = false;
+                    }
+                    Log.w("CityRepository", "City bundle request failed (" + response.code()
+                            + "), fetching parts separately: " + cityName);
+                    fetchSeparately(cityName, knownCityId, callback);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<List<City>> call, Throwable t) {
+                Log.e("CityRepository", "Network/Parsing error: " + t.getMessage(), t);
+                if (callback != null) {
+                    callback.onError(new Exception("Network error: " + t.getMessage()));
+                }
+            }
+        });
+    }
+
+    /**
+     * PostgREST select embedding the timeline (ordered server-side) and gallery in the city row.
+     */
+    private static Map<String, String> bundleFilters() {
+        Map<String, String> filters = new HashMap<>();
+        filters.put("select", CITY_BUNDLE_SELECT);
+        filters.put("history_timeline.order", "order_index.asc");
+        return filters;
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list != null ? list.size() : 0;
+    }
+
+    /**
+     * Fallback without embedding. With a known city id the city, history and gallery
+     * requests go out together; otherwise history and gallery follow the city in parallel.
+     */
+    private void fetchSeparately(String cityName, String knownCityId, CityCallback callback) {
+        CityBundle bundle = new CityBundle(knownCityId != null ? 3 : 2);
+        if (knownCityId != null) {
+            fetchCity(cityName, callback, city -> completePart(bundle.setCity(city), bundle, callback));
+            fetchDetails(knownCityId, bundle, callback);
+        } else {
+            fetchCity(cityName, callback, city -> {
+                bundle.setCity(city);
+                fetchDetails(city.getId(), bundle, callback);
+            });
+        }
+    }
+
+    private void fetchDetails(String cityId, CityBundle bundle, CityCallback callback) {
+        fetchHistoryForCity(cityId, history -> completePart(bundle.setHistory(history), bundle, callback));
+        fetchGalleryForCity(cityId, gallery -> completePart(bundle.setGallery(gallery), bundle, callback));
+    }
+
+    private void completePart(boolean complete, CityBundle bundle, CityCallback callback) {
+        if (!complete) {
+            return;
+        }
+        saveAndCallback(bundle.assemble(), callback);
+    }
+
+    /**
+     * Fetches the bare city row; errors go straight to {@code callback} and end the load.
+     */
+    private void fetchCity(String cityName, CityCallback callback, Consumer<City> onCity) {
         String authHeader = "Bearer " + SUPABASE_KEY;
         // Fetch all fields including 'location' (PostGIS GeoJSON)
         // We parse 'location' locally in City.java to avoid needing server-side computed columns
@@ -72,9 +368,7 @@ public class CityRepository {
                 if (response.isSuccessful() && response.body() != null && !response.body().isEmpty()) {
                     City city = response.body().get(0);
                     Log.d("CityRepository", "Fetched City: " + city.getName() + ", ID: " + city.getId() + ", Desc: " + (city.getDescription() != null ? "Present" : "NULL"));
-                    
-                    // 3. Fetch History
-                    fetchHistoryForCity(city, callback);
+                    onCity.accept(city);
                 } else {
                     String errorMsg = "City not found in Supabase: " + response.message();
                     try {
@@ -102,39 +396,41 @@ public class CityRepository {
         });
     }
     
-    private void fetchHistoryForCity(City city, CityCallback callback) {
+    /**
+     * Delivers the timeline, or null on failure so the cached timeline is kept.
+     */
+    private void fetchHistoryForCity(String cityId, Consumer<List<HistoryEvent>> onHistory) {
         String authHeader = "Bearer " + SUPABASE_KEY;
-        supabaseApi.getHistoryByCityId(SUPABASE_KEY, authHeader, "eq." + city.getId(), "order_index.asc").enqueue(new Callback<List<HistoryEvent>>() {
+        supabaseApi.getHistoryByCityId(SUPABASE_KEY, authHeader, "eq." + cityId, "order_index.asc").enqueue(new Callback<List<HistoryEvent>>() {
             @Override
             public void onResponse(Call<List<HistoryEvent>> call, Response<List<HistoryEvent>> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    city.setHistoryEvents(response.body());
+                    onHistory.accept(response.body());
                 } else {
-                    city.setHistoryEvents(Collections.emptyList());
+                    Log.e("CityRepository", "Failed to fetch history: " + response.code() + " " + response.message());
+                    onHistory.accept(null);
                 }
-                
-                // 4. Save to Local DB (after fetching gallery)
-                fetchGalleryForCity(city, callback);
             }
 
             @Override
             public void onFailure(Call<List<HistoryEvent>> call, Throwable t) {
-                Log.e("CityRepository", "Failed to fetch history for city: " + city.getId(), t);
-                // If history fails, try gallery anyway
-                city.setHistoryEvents(Collections.emptyList());
-                fetchGalleryForCity(city, callback);
+                Log.e("CityRepository", "Failed to fetch history for city: " + cityId, t);
+                onHistory.accept(null);
             }
         });
     }
     
-    private void fetchGalleryForCity(City city, CityCallback callback) {
+    /**
+     * Delivers the gallery, or null on failure so the cached gallery is kept.
+     */
+    private void fetchGalleryForCity(String cityId, Consumer<List<CityGalleryImage>> onGallery) {
         String authHeader = "Bearer " + SUPABASE_KEY;
-        supabaseApi.getCityGallery(SUPABASE_KEY, authHeader, "eq." + city.getId()).enqueue(new Callback<List<com.example.moresqplore.data.model.CityGalleryImage>>() {
+        supabaseApi.getCityGallery(SUPABASE_KEY, authHeader, "eq." + cityId).enqueue(new Callback<List<CityGalleryImage>>() {
             @Override
-            public void onResponse(Call<List<com.example.moresqplore.data.model.CityGalleryImage>> call, Response<List<com.example.moresqplore.data.model.CityGalleryImage>> response) {
+            public void onResponse(Call<List<CityGalleryImage>> call, Response<List<CityGalleryImage>> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    Log.d("CityRepository", "Fetched " + response.body().size() + " gallery images for " + city.getName());
-                    city.setGallery(response.body());
+                    Log.d("CityRepository", "Fetched " + response.body().size() + " gallery images for " + cityId);
+                    onGallery.accept(response.body());
                 } else {
                     Log.e("CityRepository", "Failed to fetch gallery: " + response.code() + " " + response.message());
                     try {
@@ -142,28 +438,68 @@ public class CityRepository {
                             Log.e("CityRepository", "Error body: " + response.errorBody().string());
                         }
                     } catch (Exception e) { e.printStackTrace(); }
-                    city.setGallery(Collections.emptyList());
+                    onGallery.accept(null);
                 }
-                saveAndCallback(city, callback);
             }
 
             @Override
-            public void onFailure(Call<List<com.example.moresqplore.data.model.CityGalleryImage>> call, Throwable t) {
+            public void onFailure(Call<List<CityGalleryImage>> call, Throwable t) {
                 Log.e("CityRepository", "Network error fetching gallery: " + t.getMessage(), t);
-                city.setGallery(Collections.emptyList());
-                saveAndCallback(city, callback);
+                onGallery.accept(null);
             }
         });
     }
-    
+
+    /**
+     * Collects the city, timeline and gallery from concurrent requests; each setter
+     * returns true for the part that completes the bundle.
+     */
+    private static final class CityBundle {
+        private int pending;
+        private City city;
+        private List<HistoryEvent> history;
+        private List<CityGalleryImage> gallery;
+
+        CityBundle(int parts) {
+            this.pending = parts;
+        }
+
+        synchronized boolean setCity(City city) {
+            this.city = city;
+            return --pending == 0;
+        }
+
+        synchronized boolean setHistory(List<HistoryEvent> history) {
+            this.history = history;
+            return --pending == 0;
+        }
+
+        synchronized boolean setGallery(List<CityGalleryImage> gallery) {
+            this.gallery = gallery;
+            return --pending == 0;
+        }
+
+        synchronized City assemble() {
+            city.setHistoryEvents(history);
+            city.setGallery(gallery);
+            return city;
+        }
+    }
+
+    /**
+     * Stores the city with its timeline and gallery, then hands back the stored copy so
+     * parts that failed to download are filled from the cache rather than left empty.
+     */
     private void saveAndCallback(City city, CityCallback callback) {
-        executorService.execute(() -> {
-            cityDao.insertCity(city);
+        writeExecutor.execute(() -> {
+            cityDao.saveCityWithDetails(city);
+            markFresh(city.getName());
             Log.d("CityRepository", "Saved city to local DB: " + city.getName());
+
+            if (callback != null) {
+                CityWithDetails saved = cityDao.getCityWithDetails(city.getName());
+                callback.onSuccess(saved != null ? saved.toCity() : city);
+            }
         });
-        
-        if (callback != null) {
-            callback.onSuccess(city);
-        }
     }
 }
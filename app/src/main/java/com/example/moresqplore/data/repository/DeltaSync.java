@@ -0,0 +1,46 @@
+package com.example.moresqplore.data.repository;
+
+import com.example.moresqplore.data.local.SyncCursor;
+
+import java.util.Map;
+
+import retrofit2.Response;
+
+/**
+ * PostgREST helpers for incremental sync on {@code updated_at}.
+ *
+ * Timestamps are compared as strings: PostgREST renders timestamptz columns in one
+ * fixed ISO-8601 format, so lexical and chronological order agree.
+ * Rows deleted upstream are not reported by a delta; a full refresh picks them up.
+ */
+final class DeltaSync {
+
+    static final int NOT_MODIFIED = 304;
+
+    private DeltaSync() {}
+
+    /**
+     * Restricts {@code filters} to rows changed after the cursor.
+     */
+    static void applyCursor(Map<String, String> filters, SyncCursor cursor) {
+        filters.put("updated_at", "gt." + cursor.getMaxUpdatedAt());
+        filters.put("order", "updated_at.asc");
+    }
+
+    /**
+     * True when a delta can be requested, i.e. the cursor has a position.
+     */
+    static boolean canResume(SyncCursor cursor) {
+        return cursor != null && cursor.getMaxUpdatedAt() != null;
+    }
+
+    static String newer(String current, String candidate) {
+        if (candidate == null) return current;
+        if (current == null) return candidate;
+        return candidate.compareTo(current) > 0 ? candidate : current;
+    }
+
+    static String etagOf(Response<?> response) {
+        return response.headers().get("ETag");
+    }
+}
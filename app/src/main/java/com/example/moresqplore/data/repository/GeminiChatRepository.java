@@ -1,21 +1,40 @@
 package com.example.moresqplore.data.repository;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
 
 import com.example.moresqplore.BuildConfig;
+import com.example.moresqplore.data.local.AppDatabase;
+import com.example.moresqplore.data.local.ChatMessageDao;
+import com.example.moresqplore.data.local.ChatMessageEntity;
 import com.example.moresqplore.data.model.ChatMessage;
 import com.example.moresqplore.data.model.Place;
 import com.example.moresqplore.data.network.GeminiApiClient;
+import com.example.moresqplore.data.network.GeminiCallScheduler;
 import com.example.moresqplore.data.network.GeminiModels;
+import com.example.moresqplore.data.network.GeminiStreamReader;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.ResponseBody;
 
@@ -36,16 +55,41 @@ import retrofit2.Response;
 public class GeminiChatRepository {
 
     private static volatile GeminiChatRepository instance;
+    private static Context appContext;
 
     private final MutableLiveData<List<ChatMessage>> conversationHistory =
-            new MutableLiveData<>(new ArrayList<>());
+            new MutableLiveData<>(Collections.emptyList());
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> error = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isTyping = new MutableLiveData<>(false);
+    private final MutableLiveData<String> currentConversation = new MutableLiveData<>();
 
-    private final Gson gson = new Gson();
+    // Stored conversations; null when the repository was created without a context
+    private final ChatMessageDao chatMessageDao;
+    private final Executor queryExecutor;
+    private final Executor writeExecutor;
 
-    private String conversationId;
+    private final Gson gson = new Gson();
+    private final GeminiStreamReader streamReader = new GeminiStreamReader(gson);
+    private final GeminiResponseCache responseCache;
+    private final GeminiContextWindow contextWindow = new GeminiContextWindow(DEFAULT_CONTEXT_TOKEN_BUDGET);
+
+    // Rolling summary of the turns that no longer fit the context window, guarded by summaryLock
+    private final Object summaryLock = new Object();
+    private String rollingSummary;
+    // Id of the newest message folded into the summary
+    private String summarizedThroughId;
+    private boolean compacting;
+    private int summaryGeneration;
+
+    // Recent messages, appended to from the UI thread and OkHttp callbacks; the full conversation is in Room
+    private final ChatMessageLog log = new ChatMessageLog(MEMORY_WINDOW);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Latest answer request, cancelled (if still queued or streaming) when the conversation is cleared
+    private volatile GeminiCallScheduler.Ticket activeStream;
+
+    private volatile String conversationId;
     private String currentLanguage = "en"; // Default language
     private final String modelId;
 
@@ -87,8 +131,15 @@ public class GeminiChatRepository {
                     "\nIMPORTANT: If you don't know specific information (like exact today's prices), " +
                     "acknowledge this and suggest the user verify with current sources.";
 
-    private static final int MAX_CONTEXT_MESSAGES = 15;
+    private static final int DEFAULT_CONTEXT_TOKEN_BUDGET = 4000;
+    private static final int MEMORY_WINDOW = 60;
+    private static final int PAGE_SIZE = 30;
+    private static final int MAX_STORED_CONVERSATIONS = 20;
+    // A streamed answer is written to Room at most this often while it grows
+    private static final long STREAM_PERSIST_INTERVAL_MS = 250;
     private static final int MAX_OUTPUT_TOKENS = 1024;
+    private static final int SUMMARY_MAX_OUTPUT_TOKENS = 300;
+    private static final double SUMMARY_TEMPERATURE = 0.2;
     private static final double TEMPERATURE = 0.7f;
     private static final double TOP_P = 0.9f;
     private static final String DEFAULT_MODEL_ID = "gemini-pro";
@@ -96,6 +147,26 @@ public class GeminiChatRepository {
     private GeminiChatRepository() {
         this.conversationId = UUID.randomUUID().toString();
         this.modelId = resolveModelId();
+        AppDatabase db = appContext != null ? AppDatabase.getDatabase(appContext) : null;
+        this.responseCache = new GeminiResponseCache(db);
+        this.chatMessageDao = db != null ? db.chatMessageDao() : null;
+        this.queryExecutor = db != null ? db.getQueryExecutor() : null;
+        this.writeExecutor = db != null ? db.getTransactionExecutor() : null;
+        currentConversation.setValue(conversationId);
+        if (chatMessageDao != null) {
+            String startedId = conversationId;
+            queryExecutor.execute(() -> restoreLatestConversation(startedId));
+        }
+    }
+
+    /**
+     * Provides the application context used to open stored conversations and the answer cache.
+     * Called once from {@link com.example.moresqplore.MoresQploreApplication}.
+     */
+    public static synchronized void initialize(Context context) {
+        if (context != null) {
+            appContext = context.getApplicationContext();
+        }
     }
 
     /**
@@ -124,6 +195,27 @@ public class GeminiChatRepository {
         }
     }
 
+    /**
+     * Sets how long answers to quick-action prompts are served from the cache.
+     */
+    public void configureResponseCacheTtl(long duration, TimeUnit unit) {
+        responseCache.configureTtl(duration, unit);
+    }
+
+    /**
+     * Sets how many tokens (estimated) of conversation are sent with each message.
+     */
+    public void configureContextBudget(int maxTokens) {
+        contextWindow.setTokenBudget(maxTokens);
+    }
+
+    /**
+     * Sets how many Gemini requests may start per minute, and in a burst, across the app.
+     */
+    public void configureRateLimit(int requestsPerMinute, int burst) {
+        GeminiApiClient.getCallScheduler().configure(requestsPerMinute, burst);
+    }
+
     private String resolveModelId() {
         // Use the model ID from BuildConfig (which comes from local.properties)
         String modelId = BuildConfig.GEMINI_MODEL_ID;
@@ -148,6 +240,25 @@ public class GeminiChatRepository {
         return conversationHistory;
     }
 
+    /**
+     * Pages through the current conversation, newest message first (lay the list out
+     * reversed). Switches to the new conversation when it is cleared. Each call builds a new
+     * stream; callers should build it once and cache it in their ViewModel scope (PagingLiveData.cachedIn).
+     */
+    public LiveData<PagingData<ChatMessage>> getPagedConversation() {
+        if (chatMessageDao == null) {
+            return Transformations.map(conversationHistory, messages -> {
+                List<ChatMessage> newestFirst = new ArrayList<>(messages);
+                Collections.reverse(newestFirst);
+                return PagingData.from(newestFirst);
+            });
+        }
+        PagingConfig config = new PagingConfig(PAGE_SIZE, PAGE_SIZE, false);
+        return Transformations.switchMap(currentConversation, id -> Transformations.map(
+                PagingLiveData.getLiveData(new Pager<>(config, () -> chatMessageDao.pagingSource(id))),
+                page -> PagingDataTransforms.map(page, queryExecutor, ChatMessageEntity::toMessage)));
+    }
+
     /**
      * Returns LiveData for observing loading state.
      *
@@ -215,32 +326,111 @@ public class GeminiChatRepository {
      * @param contextData  Additional context data in JSON format
      */
     public void sendMessage(String userMessage, String contextType, String contextData) {
+        sendMessage(userMessage, contextType, contextData, GeminiCallScheduler.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Outcome of one message sent with
+     * {@link #sendBackgroundMessage(String, String, String, AnswerCallback)}.
+     */
+    public interface AnswerCallback {
+        void onAnswer(String answer);
+        void onFailure(String errorMessage);
+    }
+
+    /**
+     * Like {@link #sendMessage(String, String, String)}, for long generations nobody is waiting on
+     * turn by turn (e.g. itineraries). The request yields to chat messages while the rate
+     * limit is reached, so chat answers may complete before it; {@code callback} hears about
+     * this message's own answer rather than whichever finished last.
+     *
+     * @param callback told on the main thread once the answer is complete or has failed
+     */
+    public void sendBackgroundMessage(String userMessage, String contextType, String contextData,
+                                      AnswerCallback callback) {
+        sendMessage(userMessage, contextType, contextData, GeminiCallScheduler.Priority.BACKGROUND, callback);
+    }
+
+    private void sendMessage(String userMessage, String contextType, String contextData,
+                             GeminiCallScheduler.Priority priority) {
+        sendMessage(userMessage, contextType, contextData, priority, null);
+    }
+
+    private void sendMessage(String userMessage, String contextType, String contextData,
+                             GeminiCallScheduler.Priority priority, AnswerCallback callback) {
+        List<ChatMessage> history = appendUserMessage(userMessage, contextType, contextData);
+        if (history != null) {
+            requestAnswer(buildContents(history), null, priority, callback);
+        } else {
+            failed(callback, "Message cannot be empty");
+        }
+    }
+
+    /**
+     * Sends a self-contained prompt whose answer depends only on its text, the response
+     * language and the model, and serves repeated prompts from {@link GeminiResponseCache}.
+     * The prompt is sent without the earlier turns, so a cached answer fits any conversation.
+     */
+    private void sendCacheableMessage(String userMessage, String contextType, String contextData) {
+        ChatMessageLog.Snapshot history = appendUserMessage(userMessage, contextType, contextData);
+        if (history == null) {
+            return;
+        }
+        String prompt = history.last().getContent();
+        String cacheKey = GeminiResponseCache.key(prompt, currentLanguage, modelId);
+
+        responseCache.get(cacheKey, cached -> {
+            if (cached == null) {
+                requestAnswer(Collections.singletonList(new GeminiModels.Content("user", prompt)), cacheKey,
+                        GeminiCallScheduler.Priority.INTERACTIVE, null);
+                return;
+            }
+            android.util.Log.d("GeminiChat", "Answered from cache (" + contextType + ")");
+            ChatMessage answer = ChatMessage.assistantMessage(cached);
+            answer.setConversationId(conversationId);
+            publish(log.append(answer));
+            persist(answer);
+            isLoading.postValue(false);
+            isTyping.postValue(false);
+        });
+    }
+
+    /**
+     * Adds the user's message to the conversation and shows the typing indicator.
+     *
+     * @return the recent messages, ending with the user's, or null if the message was empty
+     */
+    private ChatMessageLog.Snapshot appendUserMessage(String userMessage, String contextType, String contextData) {
         if (userMessage == null || userMessage.trim().isEmpty()) {
             handleError("Message cannot be empty");
-            return;
+            return null;
         }
 
         String trimmedMessage = userMessage.trim();
 
-        // Add user message to conversation history
-        List<ChatMessage> history = conversationHistory.getValue();
-        if (history == null) {
-            history = new ArrayList<>();
-        }
-
         ChatMessage userMsg = ChatMessage.userMessage(trimmedMessage);
         userMsg.setConversationId(conversationId);
         userMsg.setContextType(contextType);
         userMsg.setContextData(contextData);
-        history.add(userMsg);
 
-        conversationHistory.postValue(new ArrayList<>(history));
+        // The snapshot is the log as of this append, so concurrent sends don't leak into its context
+        ChatMessageLog.Snapshot history = log.append(userMsg);
+        publish(history);
+        persist(userMsg);
         isLoading.postValue(true);
         isTyping.postValue(true);
+        return history;
+    }
 
-        // Build the conversation context for Gemini
-        List<GeminiModels.Content> contents = buildContents(history);
-
+    /**
+     * Asks Gemini to answer the last turn of {@code contents}.
+     *
+     * @param contents conversation context sent to the model
+     * @param cacheKey where to store a complete answer, or null to not cache it
+     * @param callback told about this answer's outcome, or null
+     */
+    private void requestAnswer(List<GeminiModels.Content> contents, String cacheKey,
+                               GeminiCallScheduler.Priority priority, AnswerCallback callback) {
         // Create request
         GeminiModels.GenerateContentRequest request = createRequest(contents);
 
@@ -252,6 +442,7 @@ public class GeminiChatRepository {
             handleError("API key not configured. Please check your app settings.");
             isLoading.postValue(false);
             isTyping.postValue(false);
+            failed(callback, "API key not configured");
             return;
         }
         
@@ -259,50 +450,199 @@ public class GeminiChatRepository {
             handleError("API key is empty. Please configure your Gemini API key.");
             isLoading.postValue(false);
             isTyping.postValue(false);
+            failed(callback, "API key is empty");
             return;
         }
 
-        android.util.Log.d("GeminiChat", "Sending request to model: '" + modelId + "'");
-        android.util.Log.d("GeminiChat", "Model ID length: " + modelId.length());
-        android.util.Log.d("GeminiChat", "API Key exists: " + (apiKey != null && !apiKey.isEmpty()));
-        
-        // Make the API call
-        GeminiApiClient.getGeminiService().generateContent(modelId, apiKey, request)
-                .enqueue(new Callback<GeminiModels.GenerateContentResponse>() {
-                    @Override
-                    public void onResponse(
-                            Call<GeminiModels.GenerateContentResponse> call,
-                            Response<GeminiModels.GenerateContentResponse> response) {
-                        isLoading.postValue(false);
-                        isTyping.postValue(false);
-
-                        if (response == null) {
-                            handleError("Empty response from server");
-                            return;
-                        }
+        android.util.Log.d("GeminiChat", "Streaming request to model: '" + modelId + "'");
+
+        // Placeholder bubble (typing indicator) that the streamed answer fills in
+        ChatMessage placeholder = ChatMessage.assistantMessage("");
+        placeholder.setConversationId(conversationId);
+        placeholder.setLoading(true);
+        publish(log.append(placeholder));
+
+        streamResponse(request, apiKey, placeholder, cacheKey, priority, callback);
+    }
 
-                        if (response != null && response.isSuccessful() && response.body() != null) {
-                            GeminiModels.GenerateContentResponse geminiResponse = response.body();
-                            android.util.Log.d("GeminiChat", "Response received, processing...");
-                            processResponse(geminiResponse);
-                        } else {
-                            android.util.Log.e("GeminiChat", "Unsuccessful response: " + 
-                                (response != null ? "Code " + response.code() + ": " + response.message() : "null response"));
-                            handleUnsuccessfulResponse(response);
+    /**
+     * Streams the answer with {@code streamGenerateContent?alt=sse} and publishes the growing
+     * text as it arrives, so the first words appear long before generation finishes.
+     * The body is read in the callback, which the Gemini Retrofit runs on a background executor
+     * (see {@link com.example.moresqplore.data.network.NetworkModule#getGeminiRetrofit}); only
+     * snapshots are posted to the main thread. Rate limiting and retries of rejected requests
+     * are left to {@link GeminiCallScheduler}.
+     *
+     * @param placeholder assistant message the streamed text replaces
+     * @param cacheKey    response cache key for a complete answer, or null
+     * @param callback    told about this answer's outcome, or null
+     */
+    private void streamResponse(GeminiModels.GenerateContentRequest request, String apiKey,
+                                ChatMessage placeholder, String cacheKey, GeminiCallScheduler.Priority priority,
+                                AnswerCallback callback) {
+        Call<ResponseBody> call = GeminiApiClient.getGeminiService()
+                .streamGenerateContent(modelId, "sse", apiKey, request);
+
+        activeStream = GeminiApiClient.getCallScheduler().enqueue(call, priority, new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    android.util.Log.e("GeminiChat", "Unsuccessful response: Code " + response.code() + ": " + response.message());
+                    finishStream();
+                    publish(log.remove(placeholder.getId()));
+                    handleUnsuccessfulResponse(response);
+                    failed(callback, "Server error: " + response.code());
+                    return;
+                }
+
+                StringBuilder answer = new StringBuilder();
+                long[] lastPersistedAt = {0};
+                try (ResponseBody body = response.body()) {
+                    String finishReason = streamReader.read(body.charStream(), delta -> {
+                        if (answer.length() == 0) {
+                            isTyping.postValue(false);
+                        }
+                        answer.append(delta);
+                        ChatMessage partial = placeholder.withContent(answer.toString());
+                        publish(log.replace(partial));
+
+                        long now = System.currentTimeMillis();
+                        if (now - lastPersistedAt[0] >= STREAM_PERSIST_INTERVAL_MS) {
+                            lastPersistedAt[0] = now;
+                            persist(partial);
                         }
+                    });
+                    android.util.Log.d("GeminiChat", "Stream finished (" + finishReason + "), length: " + answer.length());
+                    if (answer.length() == 0) {
+                        publish(log.remove(placeholder.getId()));
+                        handleError("Received empty response from AI");
+                        failed(callback, "Received empty response from AI");
+                    } else {
+                        persist(placeholder.withContent(answer.toString()));
+                        if (cacheKey != null && "STOP".equals(finishReason)) {
+                            // Truncated or blocked answers are not worth replaying
+                            responseCache.put(cacheKey, currentLanguage, modelId, answer.toString());
+                        }
+                        answered(callback, answer.toString());
                     }
-
-                    @Override
-                    public void onFailure(
-                            Call<GeminiModels.GenerateContentResponse> call,
-                            Throwable t) {
-                        isLoading.postValue(false);
-                        isTyping.postValue(false);
-                        String errorMsg = t != null ? (t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName()) : "Unknown error";
-                        android.util.Log.e("GeminiChat", "API call failed: " + errorMsg, t);
-                        handleError("Network error: " + errorMsg);
+                } catch (GeminiStreamReader.StreamException e) {
+                    android.util.Log.e("GeminiChat", "Error event in stream: " + e.getMessage());
+                    keepPartialAnswer(placeholder, answer);
+                    handleApiError(e.getApiError());
+                    failed(callback, e.getMessage());
+                } catch (IOException e) {
+                    if (call.isCanceled()) {
+                        failed(callback, "Cancelled");
+                        return;
                     }
-                });
+                    android.util.Log.e("GeminiChat", "Stream interrupted after " + answer.length() + " chars", e);
+                    keepPartialAnswer(placeholder, answer);
+                    handleError("Network error: " + e.getMessage());
+                    failed(callback, "Network error: " + e.getMessage());
+                } finally {
+                    finishStream();
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                finishStream();
+                if (call.isCanceled()) {
+                    failed(callback, "Cancelled");
+                    return;
+                }
+                String errorMsg = t != null ? (t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName()) : "Unknown error";
+                android.util.Log.e("GeminiChat", "API call failed: " + errorMsg, t);
+                publish(log.remove(placeholder.getId()));
+                handleError("Network error: " + errorMsg);
+                failed(callback, "Network error: " + errorMsg);
+            }
+        });
+    }
+
+    /**
+     * Leaves whatever part of the answer already arrived in place (or drops the empty placeholder).
+     */
+    private void keepPartialAnswer(ChatMessage placeholder, StringBuilder answer) {
+        if (answer.length() > 0) {
+            ChatMessage partial = placeholder.withContent(answer.toString());
+            publish(log.replace(partial));
+            persist(partial);
+        } else {
+            publish(log.remove(placeholder.getId()));
+        }
+    }
+
+    private void finishStream() {
+        isLoading.postValue(false);
+        isTyping.postValue(false);
+    }
+
+    private void answered(AnswerCallback callback, String answer) {
+        if (callback != null) {
+            mainHandler.post(() -> callback.onAnswer(answer));
+        }
+    }
+
+    private void failed(AnswerCallback callback, String errorMessage) {
+        if (callback != null) {
+            mainHandler.post(() -> callback.onFailure(errorMessage));
+        }
+    }
+
+    /**
+     * Shows a snapshot of the log. Snapshots can reach the main thread out of order (postValue
+     * would also drop all but the last one), so an older one never replaces a newer one.
+     *
+     * @param snapshot the log after a change, or null if the change did not apply
+     */
+    private void publish(ChatMessageLog.Snapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        mainHandler.post(() -> {
+            List<ChatMessage> shown = conversationHistory.getValue();
+            if (shown instanceof ChatMessageLog.Snapshot
+                    && ((ChatMessageLog.Snapshot) shown).sequence >= snapshot.sequence) {
+                return;
+            }
+            conversationHistory.setValue(snapshot);
+        });
+    }
+
+    private void persist(ChatMessage message) {
+        if (chatMessageDao != null) {
+            ChatMessageEntity entity = ChatMessageEntity.fromMessage(message);
+            writeExecutor.execute(() -> chatMessageDao.upsert(entity));
+        }
+    }
+
+    /**
+     * Reopens the most recent stored conversation, unless a new one was started meanwhile.
+     * Only the last {@link #MEMORY_WINDOW} messages are loaded; the UI pages the rest.
+     */
+    private void restoreLatestConversation(String startedId) {
+        String storedId = chatMessageDao.getLatestConversationId();
+        if (storedId == null) {
+            return;
+        }
+        List<ChatMessage> recent = ChatMessageEntity.toMessages(chatMessageDao.getLatest(storedId, MEMORY_WINDOW));
+        Collections.reverse(recent);
+        synchronized (this) {
+            ChatMessageLog.Snapshot current = log.snapshot();
+            if (!startedId.equals(conversationId) || !current.isEmpty()) {
+                return;
+            }
+            ChatMessageLog.Snapshot restored = log.resetIfUnchanged(current, recent);
+            if (restored == null) {
+                // A message was sent meanwhile
+                return;
+            }
+            conversationId = storedId;
+            currentConversation.postValue(storedId);
+            publish(restored);
+        }
+        android.util.Log.d("GeminiChat", "Restored conversation with " + recent.size() + " recent messages");
     }
 
     /**
@@ -356,29 +696,7 @@ public class GeminiChatRepository {
         return safetySettings;
     }
 
-    /**
-     * Processes the API response and updates conversation history.
-     *
-     * @param geminiResponse The response from Gemini API
-     */
-    private void processResponse(GeminiModels.GenerateContentResponse geminiResponse) {
-        if (geminiResponse.isSuccessful()) {
-            String assistantResponse = geminiResponse.getFirstCandidateText();
-            if (assistantResponse != null && !assistantResponse.isEmpty()) {
-                android.util.Log.d("GeminiChat", "Response received successfully, length: " + assistantResponse.length());
-                addAssistantMessage(assistantResponse);
-            } else {
-                android.util.Log.w("GeminiChat", "Empty response text received");
-                handleError("Received empty response from AI");
-            }
-        } else {
-            android.util.Log.e("GeminiChat", "Response indicates error: " + 
-                (geminiResponse.getError() != null ? geminiResponse.getError().getMessage() : "unknown"));
-            handleApiError(geminiResponse.getError());
-        }
-    }
-
-    private void handleUnsuccessfulResponse(Response<GeminiModels.GenerateContentResponse> response) {
+    private void handleUnsuccessfulResponse(Response<?> response) {
         if (response == null) {
             handleError("Server error: empty response");
             return;
@@ -442,25 +760,6 @@ public class GeminiChatRepository {
         handleError(fallbackMessage);
     }
 
-    /**
-     * Adds an assistant message to the conversation history.
-     *
-     * @param responseText The assistant's response text
-     */
-    private void addAssistantMessage(String responseText) {
-        List<ChatMessage> updatedHistory = conversationHistory.getValue();
-        if (updatedHistory == null) {
-            updatedHistory = new ArrayList<>();
-        }
-
-        ChatMessage assistantMsg = ChatMessage.assistantMessage(responseText != null ? responseText :
-                "I'm sorry, I couldn't generate a response. Please try again.");
-        assistantMsg.setConversationId(conversationId);
-        updatedHistory.add(assistantMsg);
-
-        conversationHistory.postValue(new ArrayList<>(updatedHistory));
-    }
-
     // ==================== LOCATION-AWARE METHODS ====================
 
     /**
@@ -710,7 +1009,7 @@ public class GeminiChatRepository {
             message.append("My preferences/questions:\n").append(preferences);
         }
 
-        sendMessage(message.toString(), "transportation",
+        sendCacheableMessage(message.toString(), "transportation",
                 String.format("{\"from\":\"%s\",\"to\":\"%s\"}", fromCity, toCity));
     }
 
@@ -730,7 +1029,7 @@ public class GeminiChatRepository {
                         "5. Must-know local customs\n\n" +
                         "Keep each tip concise but practical with specific advice.";
 
-        sendMessage(message, "tips", null);
+        sendCacheableMessage(message, "tips", null);
     }
 
     /**
@@ -752,7 +1051,7 @@ public class GeminiChatRepository {
                 cuisineType != null ? cuisineType : "traditional Moroccan"
         );
 
-        sendMessage(message, "restaurants", city);
+        sendCacheableMessage(message, "restaurants", city);
     }
 
     /**
@@ -772,7 +1071,7 @@ public class GeminiChatRepository {
                 siteType != null ? siteType : "religious and historical sites"
         );
 
-        sendMessage(message, "cultural_tips", siteType);
+        sendCacheableMessage(message, "cultural_tips", siteType);
     }
 
     /**
@@ -803,34 +1102,143 @@ public class GeminiChatRepository {
 
     /**
      * Builds the contents list for Gemini API from conversation history.
-     * Limits to recent messages to stay within context window.
+     * Fills the context token budget with the newest turns; older turns are sent as
+     * the rolling summary instead.
      *
      * @param history Full conversation history
      * @return List of Content objects for the API
      */
     private List<GeminiModels.Content> buildContents(List<ChatMessage> history) {
-        List<GeminiModels.Content> contents = new ArrayList<>();
+        String summary;
+        String summarizedThrough;
+        synchronized (summaryLock) {
+            summary = rollingSummary;
+            summarizedThrough = summarizedThroughId;
+        }
+        int summarized = summarizedThrough != null ? indexOf(history, summarizedThrough) + 1 : 0;
+        GeminiContextWindow.Window window = contextWindow.build(history, summary, summarized);
+        android.util.Log.d("GeminiChat", "Context: " + (history.size() - window.firstTurn) + " of "
+                + history.size() + " messages, ~" + window.estimatedTokens + " tokens");
+
+        if (window.firstTurn > summarized) {
+            compactOlderTurns(history, summarized, window.firstTurn, summarizedThrough);
+        }
+        return window.contents;
+    }
+
+    private static int indexOf(List<ChatMessage> history, String messageId) {
+        for (int i = history.size() - 1; i >= 0; i--) {
+            if (messageId.equals(history.get(i).getId())) {
+                return i;
+            }
+        }
+        // Older than the in-memory window
+        return -1;
+    }
 
-        // Include last N messages for context (Gemini has context window limits)
-        int startIndex = Math.max(0, history.size() - MAX_CONTEXT_MESSAGES);
+    /**
+     * Folds turns {@code from} to {@code upTo} (exclusive) into the rolling summary.
+     * Runs alongside the answer request, at background priority so it never delays an answer;
+     * until it completes those turns are simply left out of the context.
+     *
+     * @param summarizedThrough summary marker the caller saw; the fold is skipped if it moved since
+     */
+    private void compactOlderTurns(List<ChatMessage> history, int from, int upTo, String summarizedThrough) {
+        String previousSummary;
+        int generation;
+        synchronized (summaryLock) {
+            if (compacting || !Objects.equals(summarizedThrough, summarizedThroughId)) {
+                return;
+            }
+            compacting = true;
+            previousSummary = rollingSummary;
+            generation = summaryGeneration;
+        }
+        String foldedThrough = history.get(upTo - 1).getId();
 
-        for (int i = startIndex; i < history.size(); i++) {
-            ChatMessage msg = history.get(i);
-            String role = msg.isUser() ? "user" : "model";
-            GeminiModels.Content content = new GeminiModels.Content(role, msg.getContent());
-            contents.add(content);
+        String apiKey;
+        try {
+            apiKey = GeminiApiClient.getApiKey();
+        } catch (IllegalStateException e) {
+            finishCompaction(generation, null, summarizedThrough, foldedThrough, upTo - from);
+            return;
         }
 
-        return contents;
+        GeminiModels.GenerateContentRequest request = new GeminiModels.GenerateContentRequest(
+                Collections.singletonList(new GeminiModels.Content("user",
+                        GeminiContextWindow.summaryPrompt(previousSummary, history, from, upTo))));
+        GeminiModels.GenerationConfig config = new GeminiModels.GenerationConfig();
+        config.setMaxOutputTokens(SUMMARY_MAX_OUTPUT_TOKENS);
+        config.setTemperature(SUMMARY_TEMPERATURE);
+        request.setGenerationConfig(config);
+
+        GeminiApiClient.getCallScheduler().enqueue(
+                GeminiApiClient.getGeminiService().generateContent(modelId, apiKey, request),
+                GeminiCallScheduler.Priority.BACKGROUND, new Callback<GeminiModels.GenerateContentResponse>() {
+                    @Override
+                    public void onResponse(Call<GeminiModels.GenerateContentResponse> call,
+                                           Response<GeminiModels.GenerateContentResponse> response) {
+                        GeminiModels.GenerateContentResponse body = response.body();
+                        String summary = response.isSuccessful() && body != null && body.isSuccessful()
+                                ? body.getFirstCandidateText() : null;
+                        if (summary == null) {
+                            android.util.Log.w("GeminiChat", "Summary request failed: " + response.code());
+                        }
+                        finishCompaction(generation, summary, summarizedThrough, foldedThrough, upTo - from);
+                    }
+
+                    @Override
+                    public void onFailure(Call<GeminiModels.GenerateContentResponse> call, Throwable t) {
+                        android.util.Log.w("GeminiChat", "Summary request failed", t);
+                        finishCompaction(generation, null, summarizedThrough, foldedThrough, upTo - from);
+                    }
+                });
+    }
+
+    private void finishCompaction(int generation, String summary, String previousThrough, String foldedThrough,
+                                  int foldedCount) {
+        synchronized (summaryLock) {
+            if (generation != summaryGeneration) {
+                // The conversation was cleared or replaced meanwhile
+                return;
+            }
+            compacting = false;
+            if (summary != null && !summary.trim().isEmpty() && Objects.equals(summarizedThroughId, previousThrough)) {
+                rollingSummary = summary.trim();
+                summarizedThroughId = foldedThrough;
+                android.util.Log.d("GeminiChat", "Folded " + foldedCount + " more messages into the summary");
+            }
+        }
+    }
+
+    private void resetSummary() {
+        synchronized (summaryLock) {
+            rollingSummary = null;
+            summarizedThroughId = null;
+            compacting = false;
+            summaryGeneration++;
+        }
     }
 
     /**
      * Clears the conversation history and starts a new conversation.
      */
     public void clearConversation() {
-        conversationId = UUID.randomUUID().toString();
-        conversationHistory.postValue(new ArrayList<>());
+        GeminiCallScheduler.Ticket stream = activeStream;
+        if (stream != null) {
+            stream.cancel();
+        }
+        synchronized (this) {
+            conversationId = UUID.randomUUID().toString();
+            currentConversation.postValue(conversationId);
+            publish(log.reset(Collections.emptyList()));
+        }
+        resetSummary();
         error.setValue(null);
+        if (chatMessageDao != null) {
+            // Earlier conversations stay stored, up to a limit
+            writeExecutor.execute(() -> chatMessageDao.trimConversations(MAX_STORED_CONVERSATIONS));
+        }
     }
 
     /**
@@ -839,31 +1247,50 @@ public class GeminiChatRepository {
      * @param messages List of messages to restore
      */
     public void setConversationHistory(List<ChatMessage> messages) {
-        conversationHistory.postValue(messages != null ? messages : new ArrayList<>());
+        List<ChatMessage> restored = messages != null ? new ArrayList<>(messages) : new ArrayList<>();
+        for (ChatMessage message : restored) {
+            if (message.getConversationId() == null) {
+                message.setConversationId(conversationId);
+            }
+        }
+        resetSummary();
+        synchronized (this) {
+            if (!restored.isEmpty()) {
+                conversationId = restored.get(restored.size() - 1).getConversationId();
+                currentConversation.postValue(conversationId);
+            }
+            publish(log.reset(restored));
+        }
+        if (chatMessageDao != null) {
+            List<ChatMessageEntity> entities = new ArrayList<>(restored.size());
+            for (ChatMessage message : restored) {
+                entities.add(ChatMessageEntity.fromMessage(message));
+            }
+            writeExecutor.execute(() -> chatMessageDao.upsertAll(entities));
+        }
     }
 
     /**
-     * Gets a specific message from the conversation history.
+     * Gets a specific message from the recent messages kept in memory.
      *
      * @param index Index of the message
      * @return ChatMessage at the index or null
      */
     public ChatMessage getMessageAt(int index) {
-        List<ChatMessage> history = conversationHistory.getValue();
-        if (history != null && index >= 0 && index < history.size()) {
+        List<ChatMessage> history = log.snapshot();
+        if (index >= 0 && index < history.size()) {
             return history.get(index);
         }
         return null;
     }
 
     /**
-     * Gets the number of messages in the conversation.
+     * Gets the number of recent messages kept in memory (at most {@link #MEMORY_WINDOW}).
      *
      * @return Message count
      */
     public int getMessageCount() {
-        List<ChatMessage> history = conversationHistory.getValue();
-        return history != null ? history.size() : 0;
+        return log.snapshot().size();
     }
 
     /**
@@ -916,18 +1343,13 @@ public class GeminiChatRepository {
     private void handleError(String errorMessage) {
         error.postValue(errorMessage);
 
-        // Add fallback message to conversation
-        List<ChatMessage> history = conversationHistory.getValue();
-        if (history == null) {
-            history = new ArrayList<>();
-        }
-
         String userFriendlyMessage = getUserFriendlyErrorMessage(errorMessage);
 
         ChatMessage errorMsg = ChatMessage.assistantMessage(userFriendlyMessage);
         errorMsg.setConversationId(conversationId);
-        history.add(errorMsg);
-        conversationHistory.postValue(new ArrayList<>(history));
+        // Add fallback message to conversation
+        publish(log.append(errorMsg));
+        persist(errorMsg);
     }
 
     /**
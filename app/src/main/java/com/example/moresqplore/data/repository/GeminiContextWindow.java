@@ -0,0 +1,141 @@
+package com.example.moresqplore.data.repository;
+
+import com.example.moresqplore.data.model.ChatMessage;
+import com.example.moresqplore.data.network.GeminiModels;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks the turns of a conversation that are sent to Gemini, within a token budget.
+ *
+ * Turns are taken newest first until the budget is spent. The turns before them are
+ * represented by a rolling summary, which the repository extends in the background
+ * (see {@link #summaryPrompt}) whenever more turns fall out of the window. Token counts
+ * are estimated locally; an exact count would cost a countTokens round trip per message.
+ */
+class GeminiContextWindow {
+
+    // Gemini averages about 4 characters per token for Latin text; Arabic and emoji use far more
+    private static final int ASCII_CHARS_PER_TOKEN = 4;
+    private static final int OTHER_CHARS_PER_TOKEN = 2;
+
+    // Role and framing of each turn
+    private static final int TURN_OVERHEAD_TOKENS = 4;
+
+    // Keeps one pasted place list from taking over the summary request
+    private static final int MAX_SUMMARIZED_TURN_CHARS = 2000;
+
+    private static final String SUMMARY_PREFIX = "Summary of our conversation so far:\n";
+    private static final String SUMMARY_ACK = "Understood, I'll keep that in mind.";
+
+    /**
+     * Contents to send, plus where the verbatim part of the conversation starts.
+     */
+    static final class Window {
+        final List<GeminiModels.Content> contents;
+        // Index in the history of the oldest turn sent verbatim
+        final int firstTurn;
+        final int estimatedTokens;
+
+        Window(List<GeminiModels.Content> contents, int firstTurn, int estimatedTokens) {
+            this.contents = contents;
+            this.firstTurn = firstTurn;
+            this.estimatedTokens = estimatedTokens;
+        }
+    }
+
+    private volatile int tokenBudget;
+
+    GeminiContextWindow(int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    void setTokenBudget(int tokenBudget) {
+        this.tokenBudget = tokenBudget;
+    }
+
+    static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return TURN_OVERHEAD_TOKENS;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x80) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return TURN_OVERHEAD_TOKENS
+                + (ascii + ASCII_CHARS_PER_TOKEN - 1) / ASCII_CHARS_PER_TOKEN
+                + (other + OTHER_CHARS_PER_TOKEN - 1) / OTHER_CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Builds the request contents for answering the last message of {@code history}.
+     *
+     * @param summary         rolling summary of the turns before the window, or null
+     * @param summarizedTurns number of leading turns of {@code history} already folded into the
+     *                        summary; never sent verbatim
+     */
+    Window build(List<ChatMessage> history, String summary, int summarizedTurns) {
+        int last = history.size() - 1;
+        boolean hasSummary = summary != null;
+        int floor = hasSummary ? Math.min(summarizedTurns, last) : 0;
+        int summaryTokens = hasSummary ? estimateTokens(SUMMARY_PREFIX + summary) + estimateTokens(SUMMARY_ACK) : 0;
+
+        // The newest message is always sent, however large
+        int used = summaryTokens + estimateTokens(history.get(last).getContent());
+        int first = last;
+        while (first > floor) {
+            int cost = estimateTokens(history.get(first - 1).getContent());
+            if (used + cost > tokenBudget) {
+                break;
+            }
+            used += cost;
+            first--;
+        }
+        // Start on a user turn so roles keep alternating after the summary
+        while (first < last && !history.get(first).isUser()) {
+            used -= estimateTokens(history.get(first).getContent());
+            first++;
+        }
+
+        List<GeminiModels.Content> contents = new ArrayList<>(last - first + 3);
+        if (hasSummary) {
+            contents.add(new GeminiModels.Content("user", SUMMARY_PREFIX + summary));
+            contents.add(new GeminiModels.Content("model", SUMMARY_ACK));
+        }
+        for (int i = first; i <= last; i++) {
+            ChatMessage msg = history.get(i);
+            contents.add(new GeminiModels.Content(msg.isUser() ? "user" : "model", msg.getContent()));
+        }
+        return new Window(contents, first, used);
+    }
+
+    /**
+     * Prompt asking Gemini to fold turns {@code from} (inclusive) to {@code to} (exclusive)
+     * into the existing summary.
+     */
+    static String summaryPrompt(String previousSummary, List<ChatMessage> history, int from, int to) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You maintain a running summary of a conversation between a traveller and a ")
+                .append("Morocco travel assistant. Update the summary with the new turns below. ")
+                .append("Keep cities, places, dates, budget, preferences and decisions already made; ")
+                .append("drop small talk. Answer with the updated summary only, at most 150 words.\n\n");
+        prompt.append("Current summary:\n")
+                .append(previousSummary != null ? previousSummary : "(none)")
+                .append("\n\nNew turns:\n");
+        for (int i = from; i < to; i++) {
+            ChatMessage msg = history.get(i);
+            String content = msg.getContent() != null ? msg.getContent() : "";
+            if (content.length() > MAX_SUMMARIZED_TURN_CHARS) {
+                content = content.substring(0, MAX_SUMMARIZED_TURN_CHARS) + "…";
+            }
+            prompt.append(msg.isUser() ? "Traveller: " : "Assistant: ").append(content).append('\n');
+        }
+        return prompt.toString();
+    }
+}
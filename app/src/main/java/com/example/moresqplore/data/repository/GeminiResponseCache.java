@@ -0,0 +1,132 @@
+package com.example.moresqplore.data.repository;
+
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.moresqplore.data.local.AppDatabase;
+import com.example.moresqplore.data.local.GeminiResponseDao;
+import com.example.moresqplore.data.local.GeminiResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier cache of Gemini answers to self-contained prompts (quick tips, cultural tips, ...).
+ *
+ * Answers are keyed by normalized prompt, response language and model id. The memory tier is
+ * a small LRU in front of the Room table, which survives restarts and is trimmed to
+ * {@link #DISK_ENTRIES} least recently used rows. Both tiers expire answers after the TTL.
+ */
+class GeminiResponseCache {
+
+    private static final String TAG = "GeminiResponseCache";
+
+    private static final int MEMORY_ENTRIES = 32;
+    private static final int DISK_ENTRIES = 200;
+    private static final long DEFAULT_TTL_MS = TimeUnit.DAYS.toMillis(7);
+
+    /**
+     * Receives the cached answer, or null on a miss. Called on the caller's thread for
+     * memory hits and on the database query executor otherwise.
+     */
+    interface LookupCallback {
+        void onResult(String response);
+    }
+
+    private static final class Entry {
+        final String response;
+        final long createdAt;
+
+        Entry(String response, long createdAt) {
+            this.response = response;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final LruCache<String, Entry> memory = new LruCache<>(MEMORY_ENTRIES);
+    private final GeminiResponseDao dao;
+    private final Executor queryExecutor;
+    private final Executor writeExecutor;
+    private volatile long ttlMs = DEFAULT_TTL_MS;
+
+    /**
+     * @param db database holding the disk tier; null keeps the cache in memory only
+     */
+    GeminiResponseCache(AppDatabase db) {
+        this.dao = db != null ? db.geminiResponseDao() : null;
+        this.queryExecutor = db != null ? db.getQueryExecutor() : null;
+        this.writeExecutor = db != null ? db.getTransactionExecutor() : null;
+    }
+
+    void configureTtl(long duration, TimeUnit unit) {
+        ttlMs = unit.toMillis(duration);
+    }
+
+    /**
+     * Cache key for a prompt: case, surrounding and repeated whitespace do not change the key.
+     */
+    static String key(String prompt, String language, String modelId) {
+        String normalized = prompt.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return sha256(modelId + "\n" + language + "\n" + normalized);
+    }
+
+    void get(String key, LookupCallback callback) {
+        long now = System.currentTimeMillis();
+        Entry entry = memory.get(key);
+        if (entry != null) {
+            if (now - entry.createdAt < ttlMs) {
+                callback.onResult(entry.response);
+                return;
+            }
+            memory.remove(key);
+        }
+        if (dao == null) {
+            callback.onResult(null);
+            return;
+        }
+
+        queryExecutor.execute(() -> {
+            GeminiResponseEntity stored = dao.getFresh(key, now - ttlMs);
+            if (stored == null || stored.getResponse() == null) {
+                callback.onResult(null);
+                return;
+            }
+            memory.put(key, new Entry(stored.getResponse(), stored.getCreatedAt()));
+            writeExecutor.execute(() -> dao.markUsed(key, now));
+            callback.onResult(stored.getResponse());
+        });
+    }
+
+    void put(String key, String language, String modelId, String response) {
+        long now = System.currentTimeMillis();
+        memory.put(key, new Entry(response, now));
+        if (dao == null) {
+            return;
+        }
+        writeExecutor.execute(() -> {
+            dao.upsert(new GeminiResponseEntity(key, modelId, language, response, now));
+            int evicted = dao.deleteExpired(now - ttlMs) + dao.trimTo(DISK_ENTRIES);
+            if (evicted > 0) {
+                Log.d(TAG, "Evicted " + evicted + " cached answers");
+            }
+        });
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format(Locale.ROOT, "%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Android runtime ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
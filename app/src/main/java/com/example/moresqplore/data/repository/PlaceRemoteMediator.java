@@ -0,0 +1,149 @@
+package com.example.moresqplore.data.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+import androidx.paging.ListenableFutureRemoteMediator;
+
+import com.example.moresqplore.data.model.PlaceSummary;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Fills the Room place table page by page from Supabase while the UI pages through Room.
+ * Pages carry only the {@link PlaceSummary} columns; details are fetched when a place is opened.
+ *
+ * Pages are requested with a keyset cursor on (rating desc nulls last, id asc) taken from
+ * the last row already loaded, so pages stay stable while rows are inserted upstream.
+ */
+@OptIn(markerClass = ExperimentalPagingApi.class)
+class PlaceRemoteMediator extends ListenableFutureRemoteMediator<Integer, PlaceSummary> {
+
+    private static final String TAG = "PlaceRemoteMediator";
+
+    /**
+     * Issues one page request with the given PostgREST filters.
+     */
+    interface PageFetcher {
+        Call<List<PlaceSummary>> fetch(Map<String, String> filters);
+    }
+
+    /**
+     * Persists a fetched page; a non-null query key also marks the query as fresh.
+     */
+    interface PageWriter {
+        void write(List<PlaceSummary> places, String queryKey);
+    }
+
+    /**
+     * Answers whether the first page of the query was fetched recently enough to skip a refresh.
+     */
+    interface FreshnessCheck {
+        boolean isFresh(String queryKey);
+    }
+
+    private final Map<String, String> scopeFilters;
+    private final String queryKey;
+    private final PageFetcher fetcher;
+    private final PageWriter writer;
+    private final FreshnessCheck freshnessCheck;
+    private final ListeningExecutorService executor;
+
+    /**
+     * @param scopeFilters PostgREST filters selecting the paged rows (e.g. city=eq.Fes); empty for all places
+     * @param queryKey     cache metadata key of the first page
+     */
+    PlaceRemoteMediator(Map<String, String> scopeFilters, String queryKey, PageFetcher fetcher, PageWriter writer,
+                        FreshnessCheck freshnessCheck, ListeningExecutorService executor) {
+        this.scopeFilters = scopeFilters;
+        this.queryKey = queryKey;
+        this.fetcher = fetcher;
+        this.writer = writer;
+        this.freshnessCheck = freshnessCheck;
+        this.executor = executor;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<InitializeAction> initializeFuture() {
+        return executor.submit(() -> freshnessCheck.isFresh(queryKey)
+                ? InitializeAction.SKIP_INITIAL_REFRESH
+                : InitializeAction.LAUNCH_INITIAL_REFRESH);
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<MediatorResult> loadFuture(@NonNull LoadType loadType,
+                                                       @NonNull PagingState<Integer, PlaceSummary> state) {
+        return executor.submit(() -> load(loadType, state));
+    }
+
+    private MediatorResult load(LoadType loadType, PagingState<Integer, PlaceSummary> state) {
+        PlaceSummary after;
+        switch (loadType) {
+            case REFRESH:
+                after = null;
+                break;
+            case PREPEND:
+                // Pages only grow downwards from the best-rated place
+                return new MediatorResult.Success(true);
+            case APPEND:
+            default:
+                after = state.lastItemOrNull();
+                if (after == null) {
+                    return new MediatorResult.Success(true);
+                }
+                break;
+        }
+
+        int limit = loadType == LoadType.REFRESH
+                ? state.getConfig().initialLoadSize
+                : state.getConfig().pageSize;
+
+        try {
+            Response<List<PlaceSummary>> response = fetcher.fetch(keysetFilters(scopeFilters, after, limit)).execute();
+            if (!response.isSuccessful() || response.body() == null) {
+                return new MediatorResult.Error(new IOException(
+                        "Failed to fetch places page: " + response.code() + " " + response.message()));
+            }
+            List<PlaceSummary> page = response.body();
+            Log.d(TAG, "Fetched " + page.size() + " places (" + loadType + ") for " + queryKey);
+            writer.write(page, loadType == LoadType.REFRESH ? queryKey : null);
+            return new MediatorResult.Success(page.size() < limit);
+        } catch (IOException e) {
+            return new MediatorResult.Error(e);
+        }
+    }
+
+    /**
+     * PostgREST filters selecting the page of {@code limit} rows following {@code after}.
+     */
+    static Map<String, String> keysetFilters(Map<String, String> scopeFilters, PlaceSummary after, int limit) {
+        Map<String, String> filters = new HashMap<>(scopeFilters);
+        filters.put("select", PlaceSummary.SELECT_COLUMNS);
+        filters.put("order", "rating.desc.nullslast,id.asc");
+        filters.put("limit", String.valueOf(limit));
+        if (after != null) {
+            if (after.getRating() != null) {
+                String rating = after.getRating().toString();
+                filters.put("or", "(rating.lt." + rating + ",rating.is.null,and(rating.eq." + rating
+                        + ",id.gt." + after.getId() + "))");
+            } else {
+                filters.put("and", "(rating.is.null,id.gt." + after.getId() + ")");
+            }
+        }
+        return filters;
+    }
+}
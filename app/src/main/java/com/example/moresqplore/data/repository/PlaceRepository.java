@@ -1,40 +1,138 @@
 package com.example.moresqplore.data.repository;
 
+import android.content.Context;
+import android.text.TextUtils;
 import android.util.Log;
 
+import androidx.annotation.OptIn;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
 
+import com.example.moresqplore.data.local.AppDatabase;
+import com.example.moresqplore.data.local.CacheMetadata;
+import com.example.moresqplore.data.local.CacheMetadataDao;
+import com.example.moresqplore.data.local.GeoGridIndex;
+import com.example.moresqplore.data.local.PlaceDao;
+import com.example.moresqplore.data.local.PlaceEntity;
+import com.example.moresqplore.data.local.PlaceLocation;
+import com.example.moresqplore.data.local.PlaceSearch;
+import com.example.moresqplore.data.local.SyncCursor;
+import com.example.moresqplore.data.local.SyncCursorDao;
+import com.example.moresqplore.data.model.Activity;
+import com.example.moresqplore.data.model.DayPlan;
+import com.example.moresqplore.data.model.GeoBounds;
+import com.example.moresqplore.data.model.Itinerary;
 import com.example.moresqplore.data.model.Place;
-import com.example.moresqplore.data.model.GeoPoint;
+import com.example.moresqplore.data.model.PlaceSummary;
+import com.example.moresqplore.data.network.NetworkModule;
+import com.example.moresqplore.data.network.RequestCoalescer;
+import com.example.moresqplore.data.remote.JsonArrayStreamDecoder;
 import com.example.moresqplore.data.remote.SupabaseApi;
+import com.google.gson.Gson;
+import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import kotlin.jvm.functions.Function0;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * Repository for managing Place data operations with Supabase.
+ * Reads are served from the Room cache first and revalidated in the background
+ * once the cached result is older than its freshness window. Fetches return a
+ * {@link RequestLiveData}; cancel it when the screen that asked goes away.
  */
 public class PlaceRepository {
 
     private static final String TAG = "PlaceRepository";
     
     // Config (Ideally move to BuildConfig)
-    private static final String SUPABASE_URL = "https://nnipiussbpgiugauhfgg.supabase.co/rest/v1/";
     private static final String SUPABASE_KEY = "sb_publishable_4osNsT6_rVjY_V-C6WBtEA_b4QiBkOw";
 
+    // Freshness windows for cached query results
+    private static final long CITY_PLACES_MAX_AGE_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long TOP_RATED_MAX_AGE_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long PLACE_DETAILS_MAX_AGE_MS = TimeUnit.HOURS.toMillis(6);
+    private static final long NEARBY_MAX_AGE_MS = TimeUnit.MINUTES.toMillis(15);
+
+    // Safety cap on a single bounding-box response in dense areas
+    private static final int NEARBY_MAX_RESULTS = 500;
+
+    private static final int MAX_IDS_PER_QUERY = 900;
+
+    // UUIDs in an id=in.(...) filter; ~3.7 KB of URL per request
+    private static final int MAX_IDS_PER_REQUEST = 100;
+
+    // Local search ranks a bounded candidate set from the FTS index
+    private static final int SEARCH_CANDIDATE_LIMIT = 200;
+    private static final int SEARCH_MAX_RESULTS = 50;
+
+    // Paging: small pages with early prefetch keep memory bounded and the first page fast
+    private static final int PAGE_SIZE = 20;
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int INITIAL_LOAD_SIZE = 40;
+    private static final long PAGED_FIRST_PAGE_MAX_AGE_MS = TimeUnit.MINUTES.toMillis(30);
+
+    // Rows per chunk written and delivered during a streamed bulk load
+    private static final int STREAM_CHUNK_SIZE = 200;
+    // Rows per bulk load request; Supabase caps responses at 1000 rows, so stay at or below it
+    private static final int BULK_PAGE_SIZE = 1000;
+
+    // Category lists: first page across cities, whole category within a city
+    private static final int CATEGORY_PAGE_SIZE = 50;
+    private static final long CATEGORY_MAX_AGE_MS = TimeUnit.MINUTES.toMillis(30);
+
     // Singleton instance
     private static volatile PlaceRepository instance;
+    private static Context appContext;
     private final SupabaseApi supabaseApi;
 
+    // Shares one in-flight Supabase call among identical concurrent requests
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+    private final JsonArrayStreamDecoder<Place> placeStreamDecoder =
+            new JsonArrayStreamDecoder<>(new Gson(), Place.class, STREAM_CHUNK_SIZE);
+
+    // Local store
+    private final PlaceDao placeDao;
+    private final CacheMetadataDao cacheMetadataDao;
+    private final SyncCursorDao syncCursorDao;
+    // Room's query pool for reads and its serial transaction executor for writes (WAL keeps them apart)
+    private final Executor queryExecutor;
+    private final Executor writeExecutor;
+    private final ListeningExecutorService networkExecutor;
+    // Bulk loads run here one at a time, so they never hold up the paged mediator on networkExecutor
+    private final Executor bulkLoadExecutor;
+
+    // Spatial index over the coordinates of every cached place, keyed by place id
+    private final GeoGridIndex<String> placeIndex = new GeoGridIndex<>();
+
     // Cache for places data
     private final MutableLiveData<List<Place>> cachedPlaces;
     private final MutableLiveData<Boolean> isLoading;
@@ -44,12 +142,31 @@ public class PlaceRepository {
         this.cachedPlaces = new MutableLiveData<>(new ArrayList<>());
         this.isLoading = new MutableLiveData<>(false);
         this.errorMessage = new MutableLiveData<>();
+
+        if (appContext == null) {
+            throw new IllegalStateException("PlaceRepository.initialize(Context) must be called first");
+        }
+        AppDatabase db = AppDatabase.getDatabase(appContext);
+        this.placeDao = db.placeDao();
+        this.cacheMetadataDao = db.cacheMetadataDao();
+        this.syncCursorDao = db.syncCursorDao();
+        this.queryExecutor = db.getQueryExecutor();
+        this.writeExecutor = db.getTransactionExecutor();
+        this.networkExecutor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(2));
+        this.bulkLoadExecutor = Executors.newSingleThreadExecutor();
+        queryExecutor.execute(this::warmPlaceIndex);
         
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl(SUPABASE_URL)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-        this.supabaseApi = retrofit.create(SupabaseApi.class);
+        this.supabaseApi = NetworkModule.getSupabaseRetrofit().create(SupabaseApi.class);
+    }
+
+    /**
+     * Provides the application context used to open the local place cache.
+     * Called once from {@link com.example.moresqplore.MoresQploreApplication}.
+     */
+    public static synchronized void initialize(Context context) {
+        if (context != null) {
+            appContext = context.getApplicationContext();
+        }
     }
 
     public static PlaceRepository getInstance() {
@@ -76,23 +193,46 @@ public class PlaceRepository {
 
     // --- READ Operations ---
 
-    public void fetchAllPlaces() {
+    public RequestLiveData<List<Place>> fetchAllPlaces() {
         // Not strictly needed for user flow, can implement using getTopRated with high limit
-        fetchTopRatedPlaces(50); 
+        return fetchTopRatedPlaces(50);
     }
 
-    public LiveData<Place> fetchPlaceById(String placeId) {
-        MutableLiveData<Place> placeLiveData = new MutableLiveData<>();
+    public RequestLiveData<Place> fetchPlaceById(String placeId) {
+        RequestLiveData<Place> placeLiveData = new RequestLiveData<>();
+        String queryKey = "place:" + placeId;
+
+        queryExecutor.execute(() -> {
+            PlaceEntity cached = placeDao.getPlaceById(placeId);
+            // Rows written from a summary list lack details and always go to the network
+            boolean hasCachedDetails = cached != null && cached.hasDetails();
+            if (hasCachedDetails) {
+                placeLiveData.postValue(cached.toPlace());
+                if (isFresh(queryKey, PLACE_DETAILS_MAX_AGE_MS)) {
+                    return;
+                }
+            }
+            requestPlaceById(placeId, queryKey, placeLiveData, hasCachedDetails);
+        });
+        return placeLiveData;
+    }
+
+    private void requestPlaceById(String placeId, String queryKey,
+                                  RequestLiveData<Place> placeLiveData, boolean hasCachedData) {
         setLoading(true);
         String authHeader = "Bearer " + SUPABASE_KEY;
 
-        supabaseApi.getPlaceById(SUPABASE_KEY, authHeader, "eq." + placeId).enqueue(new Callback<List<Place>>() {
+        attach(placeLiveData, requestCoalescer.enqueue(queryKey,
+                () -> supabaseApi.getPlaceById(SUPABASE_KEY, authHeader, "eq." + placeId),
+                new Callback<List<Place>>() {
             @Override
             public void onResponse(Call<List<Place>> call, Response<List<Place>> response) {
                 setLoading(false);
                 if (response.isSuccessful() && response.body() != null && !response.body().isEmpty()) {
-                    placeLiveData.setValue(response.body().get(0));
-                } else {
+                    Place place = response.body().get(0);
+                    placeLiveData.setValue(place);
+                    cachePlaces(Collections.singletonList(place), queryKey);
+                } else if (!hasCachedData) {
                     setError("Place not found: " + response.message());
                 }
             }
@@ -100,38 +240,139 @@ public class PlaceRepository {
             @Override
             public void onFailure(Call<List<Place>> call, Throwable t) {
                 setLoading(false);
-                setError("Network error: " + t.getMessage());
+                reportNetworkFailure(t, hasCachedData);
             }
-        });
-        return placeLiveData;
+        }));
     }
     
-    // For simpler testing
-    public LiveData<List<Place>> fetchPlacesByCategory(String category) {
-        // Not implemented in API yet, falling back to all + filter or ignoring category for now if not critical
-        // Adding TODO
-        MutableLiveData<List<Place>> res = new MutableLiveData<>();
+    /**
+     * Best-rated places of a category across all cities (first page; see
+     * {@link #getPagedPlacesByCategory(String)} for the full list).
+     */
+    public RequestLiveData<List<Place>> fetchPlacesByCategory(String category) {
+        return fetchPlacesByCategory(null, category);
+    }
+
+    /**
+     * Places of a category, optionally within one city. Served from Room's category index;
+     * when the city's places are already cached and fresh no request is made, so
+     * switching category chips on a city screen is instant.
+     */
+    public RequestLiveData<List<Place>> fetchPlacesByCategory(String city, String category) {
+        RequestLiveData<List<Place>> categoryPlaces = new RequestLiveData<>();
+        String queryKey = "places:category:" + category + (city != null ? ":city:" + city : "");
+
+        queryExecutor.execute(() -> {
+            List<PlaceEntity> rows = city != null
+                    ? placeDao.getPlacesByCityAndCategory(city, category)
+                    : placeDao.getPlacesByCategory(category, CATEGORY_PAGE_SIZE);
+            List<Place> cached = PlaceEntity.toPlaces(rows);
+            boolean fresh = isFresh(queryKey, CATEGORY_MAX_AGE_MS)
+                    || (city != null && isFresh("places:city:" + city, CITY_PLACES_MAX_AGE_MS));
+            if (!cached.isEmpty() || fresh) {
+                categoryPlaces.postValue(cached);
+                if (fresh) {
+                    return;
+                }
+            }
+            requestPlacesByCategory(city, category, queryKey, categoryPlaces, !cached.isEmpty());
+        });
+        return categoryPlaces;
+    }
+
+    private void requestPlacesByCategory(String city, String category, String queryKey,
+                                         RequestLiveData<List<Place>> categoryPlaces, boolean hasCachedData) {
         setLoading(true);
-        // Temporary: fetch top rated and filter manually? 
-        // For now, return empty to avoid crash
-        setLoading(false);
-        return res;
+        String authHeader = "Bearer " + SUPABASE_KEY;
+        Map<String, String> filters = new HashMap<>();
+        filters.put("category", "eq." + category);
+        if (city != null) {
+            filters.put("city", "eq." + city);
+        } else {
+            filters.put("limit", String.valueOf(CATEGORY_PAGE_SIZE));
+        }
+        filters.put("order", "rating.desc.nullslast,id.asc");
+
+        attach(categoryPlaces, requestCoalescer.enqueue(queryKey,
+                () -> supabaseApi.getPlacesPage(SUPABASE_KEY, authHeader, filters),
+                new Callback<List<Place>>() {
+            @Override
+            public void onResponse(Call<List<Place>> call, Response<List<Place>> response) {
+                setLoading(false);
+                if (response.isSuccessful() && response.body() != null) {
+                    Log.d(TAG, "Fetched " + response.body().size() + " places for category: " + category);
+                    categoryPlaces.setValue(response.body());
+                    cachePlaces(response.body(), queryKey);
+                } else if (!hasCachedData) {
+                    setError("Failed to fetch places: " + response.code() + " " + response.message());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<List<Place>> call, Throwable t) {
+                setLoading(false);
+                reportNetworkFailure(t, hasCachedData);
+            }
+        }));
+    }
+
+    public RequestLiveData<List<Place>> fetchPlacesByCity(String city) {
+        RequestLiveData<List<Place>> cityPlaces = new RequestLiveData<>();
+        String queryKey = "places:city:" + city;
+
+        queryExecutor.execute(() -> {
+            List<Place> cached = PlaceEntity.toPlaces(placeDao.getPlacesByCity(city));
+            if (!cached.isEmpty()) {
+                Log.d(TAG, "Serving " + cached.size() + " cached places for city: " + city);
+                cityPlaces.postValue(cached);
+                updateCachedPlaces(cached);
+                if (isFresh(queryKey, CITY_PLACES_MAX_AGE_MS)) {
+                    return;
+                }
+            }
+            requestPlacesByCity(city, queryKey, cityPlaces, !cached.isEmpty());
+        });
+        return cityPlaces;
     }
 
-    public LiveData<List<Place>> fetchPlacesByCity(String city) {
-        MutableLiveData<List<Place>> cityPlaces = new MutableLiveData<>();
+    /**
+     * Refreshes a city's places. With cached rows and a sync cursor only rows changed
+     * since the cursor are requested (conditionally, with the last ETag); otherwise the
+     * whole city is fetched. Must be called on a database executor.
+     */
+    private void requestPlacesByCity(String city, String queryKey,
+                                     RequestLiveData<List<Place>> cityPlaces, boolean hasCachedData) {
+        SyncCursor cursor = hasCachedData ? syncCursorDao.get(queryKey) : null;
+        if (DeltaSync.canResume(cursor)) {
+            requestPlacesByCityDelta(city, queryKey, cityPlaces, cursor);
+        } else {
+            requestAllPlacesByCity(city, queryKey, cityPlaces, hasCachedData);
+        }
+    }
+
+    private void requestAllPlacesByCity(String city, String queryKey,
+                                        RequestLiveData<List<Place>> cityPlaces, boolean hasCachedData) {
         setLoading(true);
         String authHeader = "Bearer " + SUPABASE_KEY;
+        Map<String, String> filters = new HashMap<>();
+        filters.put("city", "eq." + city);
 
-        supabaseApi.getPlacesByCity(SUPABASE_KEY, authHeader, "eq." + city).enqueue(new Callback<List<Place>>() {
+        attach(cityPlaces, requestCoalescer.enqueue(queryKey,
+                () -> supabaseApi.syncPlaces(SUPABASE_KEY, authHeader, null, filters),
+                new Callback<List<Place>>() {
             @Override
             public void onResponse(Call<List<Place>> call, Response<List<Place>> response) {
                 setLoading(false);
                 if (response.isSuccessful() && response.body() != null) {
                     Log.d(TAG, "Fetched " + response.body().size() + " places for city: " + city);
                     List<Place> places = response.body();
+                    String etag = DeltaSync.etagOf(response);
                     cityPlaces.setValue(places);
                     updateCachedPlaces(places);
+                    writeExecutor.execute(() -> {
+                        persistPlaces(places, queryKey);
+                        advanceSyncCursor(queryKey, null, places, etag);
+                    });
                 } else {
                     String msg = "Failed to fetch places: " + response.code() + " " + response.message();
                     Log.e(TAG, msg);
@@ -140,7 +381,9 @@ public class PlaceRepository {
                             Log.e(TAG, "Error body: " + response.errorBody().string());
                         }
                     } catch (Exception e) { e.printStackTrace(); }
-                    setError(msg);
+                    if (!hasCachedData) {
+                        setError(msg);
+                    }
                 }
             }
 
@@ -148,37 +391,107 @@ public class PlaceRepository {
             public void onFailure(Call<List<Place>> call, Throwable t) {
                 setLoading(false);
                 Log.e(TAG, "Network error fetching places: " + t.getMessage(), t);
-                setError("Network error: " + t.getMessage());
+                reportNetworkFailure(t, hasCachedData);
+            }
+        }));
+    }
+
+    /**
+     * Applies only the rows changed since the cursor and republishes the merged city from Room.
+     * Cached rows are already on screen, so failures are only logged.
+     */
+    private void requestPlacesByCityDelta(String city, String queryKey,
+                                          RequestLiveData<List<Place>> cityPlaces, SyncCursor cursor) {
+        setLoading(true);
+        String authHeader = "Bearer " + SUPABASE_KEY;
+        Map<String, String> filters = new HashMap<>();
+        filters.put("city", "eq." + city);
+        DeltaSync.applyCursor(filters, cursor);
+
+        attach(cityPlaces, requestCoalescer.enqueue(queryKey + ":delta:" + cursor.getMaxUpdatedAt(),
+                () -> supabaseApi.syncPlaces(SUPABASE_KEY, authHeader, cursor.getEtag(), filters),
+                new Callback<List<Place>>() {
+            @Override
+            public void onResponse(Call<List<Place>> call, Response<List<Place>> response) {
+                setLoading(false);
+                if (response.code() == DeltaSync.NOT_MODIFIED) {
+                    Log.d(TAG, "Places unchanged (304) for city: " + city);
+                    writeExecutor.execute(() -> markFresh(queryKey));
+                } else if (response.isSuccessful() && response.body() != null) {
+                    List<Place> changed = response.body();
+                    String etag = DeltaSync.etagOf(response);
+                    Log.d(TAG, "Delta sync: " + changed.size() + " changed places for city: " + city);
+                    writeExecutor.execute(() -> {
+                        persistPlaces(changed, queryKey);
+                        advanceSyncCursor(queryKey, cursor, changed, etag);
+                        if (!changed.isEmpty()) {
+                            List<Place> merged = PlaceEntity.toPlaces(placeDao.getPlacesByCity(city));
+                            cityPlaces.postValue(merged);
+                            updateCachedPlaces(merged);
+                        }
+                    });
+                } else {
+                    // e.g. the table has no updated_at column: fall back to a full refresh
+                    Log.w(TAG, "Delta sync failed (" + response.code() + "), refetching city: " + city);
+                    requestAllPlacesByCity(city, queryKey, cityPlaces, true);
+                }
             }
+
+            @Override
+            public void onFailure(Call<List<Place>> call, Throwable t) {
+                setLoading(false);
+                reportNetworkFailure(t, true);
+            }
+        }));
+    }
+
+    /**
+     * Finds places within {@code radiusKm} of the given point.
+     * Cached places are answered from the in-memory spatial index; the server is queried
+     * with a lat/lon bounding box and its rows refined with the exact Haversine distance.
+     */
+    public RequestLiveData<List<Place>> fetchNearbyPlaces(double latitude, double longitude, double radiusKm) {
+        RequestLiveData<List<Place>> nearbyPlaces = new RequestLiveData<>();
+        GeoBounds bounds = GeoBounds.around(latitude, longitude, radiusKm);
+        String queryKey = String.format(Locale.US, "places:nearby:%.3f,%.3f,%.1f", latitude, longitude, radiusKm);
+
+        queryExecutor.execute(() -> {
+            List<Place> cached = loadIndexedPlaces(placeIndex.withinRadius(latitude, longitude, radiusKm));
+            if (!cached.isEmpty()) {
+                nearbyPlaces.postValue(cached);
+                if (isFresh(queryKey, NEARBY_MAX_AGE_MS)) {
+                    return;
+                }
+            }
+            requestNearbyPlaces(latitude, longitude, radiusKm, bounds, queryKey, nearbyPlaces, !cached.isEmpty());
         });
-        return cityPlaces;
+        return nearbyPlaces;
     }
 
-    public LiveData<List<Place>> fetchNearbyPlaces(double latitude, double longitude, double radiusKm) {
-        MutableLiveData<List<Place>> nearbyPlaces = new MutableLiveData<>();
+    private void requestNearbyPlaces(double latitude, double longitude, double radiusKm, GeoBounds bounds,
+                                     String queryKey, RequestLiveData<List<Place>> nearbyPlaces,
+                                     boolean hasCachedData) {
         setLoading(true);
         String authHeader = "Bearer " + SUPABASE_KEY;
 
-        // Fetch top rated and filter in memory
-        supabaseApi.getTopRatedPlaces(SUPABASE_KEY, authHeader, "rating.desc", 100).enqueue(new Callback<List<Place>>() {
+        Map<String, String> filters = new HashMap<>();
+        filters.put("and", bounds.toPostgrestFilter());
+        filters.put("order", "rating.desc");
+        filters.put("limit", String.valueOf(NEARBY_MAX_RESULTS));
+
+        // Coalesce on the exact box rather than the rounded cache key
+        attach(nearbyPlaces, requestCoalescer.enqueue("places:nearby:" + bounds.toPostgrestFilter(),
+                () -> supabaseApi.getNearbyPlaces(SUPABASE_KEY, authHeader, filters),
+                new Callback<List<Place>>() {
              @Override
              public void onResponse(Call<List<Place>> call, Response<List<Place>> response) {
                  setLoading(false);
                  if (response.isSuccessful() && response.body() != null) {
-                     List<Place> allPlaces = response.body();
-                     List<Place> filtered = new ArrayList<>();
-                     for (Place p : allPlaces) {
-                         if (p.getLocation() != null) {
-                             double dist = calculateDistance(latitude, longitude, p.getLocation().getLatitude(), p.getLocation().getLongitude());
-                             if (dist <= radiusKm) {
-                                 p.setDistanceFromUser(dist);
-                                 filtered.add(p);
-                             }
-                         }
-                     }
-                     sortPlacesByDistance(filtered);
-                     nearbyPlaces.setValue(filtered);
-                 } else {
+                     List<Place> inBox = response.body();
+                     Log.d(TAG, "Fetched " + inBox.size() + " places in bounding box");
+                     nearbyPlaces.setValue(refineByDistance(inBox, latitude, longitude, radiusKm));
+                     cachePlaces(inBox, queryKey);
+                 } else if (!hasCachedData) {
                      setError("Failed to fetch nearby places");
                  }
              }
@@ -186,53 +499,520 @@ public class PlaceRepository {
              @Override
              public void onFailure(Call<List<Place>> call, Throwable t) {
                  setLoading(false);
-                 setError(t.getMessage());
+                 reportNetworkFailure(t, hasCachedData);
              }
+        }));
+    }
+
+    /**
+     * Keeps places whose exact distance is within the radius, sorted nearest-first.
+     */
+    private List<Place> refineByDistance(List<Place> candidates, double latitude, double longitude, double radiusKm) {
+        List<Place> filtered = new ArrayList<>();
+        for (Place p : candidates) {
+            if (p.getLocation() != null) {
+                double dist = calculateDistance(latitude, longitude, p.getLocation().getLatitude(), p.getLocation().getLongitude());
+                if (dist <= radiusKm) {
+                    p.setDistanceFromUser(dist);
+                    filtered.add(p);
+                }
+            }
+        }
+        sortPlacesByDistance(filtered);
+        return filtered;
+    }
+
+    // --- Batch Reads ---
+
+    /**
+     * Hydrates a set of places in as few round trips as possible: cached rows with details
+     * are served from Room and only the missing ids go to Supabase as {@code id=in.(...)}.
+     * Results keep the order of {@code placeIds}; unknown ids are skipped.
+     */
+    public RequestLiveData<List<Place>> fetchPlacesByIds(Collection<String> placeIds) {
+        RequestLiveData<List<Place>> result = new RequestLiveData<>();
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(placeIds));
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            result.postValue(new ArrayList<>());
+            return result;
+        }
+
+        queryExecutor.execute(() -> {
+            Map<String, Place> found = new ConcurrentHashMap<>();
+            List<String> missing = new ArrayList<>();
+            Map<String, PlaceEntity> rowsById = loadRowsById(ids);
+            for (String id : ids) {
+                PlaceEntity row = rowsById.get(id);
+                if (row != null && row.hasDetails()) {
+                    found.put(id, row.toPlace());
+                } else {
+                    missing.add(id);
+                }
+            }
+            Log.d(TAG, "Batch lookup: " + found.size() + " cached, " + missing.size() + " to fetch");
+            if (missing.isEmpty()) {
+                result.postValue(orderedByIds(ids, found));
+                return;
+            }
+            requestPlacesByIds(ids, missing, found, result);
         });
-        
-        return nearbyPlaces;
+        return result;
     }
 
-    public LiveData<List<Place>> searchPlaces(String query) {
-        MutableLiveData<List<Place>> searchResults = new MutableLiveData<>();
+    /**
+     * Hydrates every place referenced by the itinerary's activities.
+     */
+    public RequestLiveData<List<Place>> fetchPlacesForItinerary(Itinerary itinerary) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (itinerary != null && itinerary.getDayPlans() != null) {
+            for (DayPlan day : itinerary.getDayPlans()) {
+                if (day.getActivities() == null) continue;
+                for (Activity activity : day.getActivities()) {
+                    if (activity.getPlaceId() != null && !activity.getPlaceId().isEmpty()) {
+                        ids.add(activity.getPlaceId());
+                    }
+                }
+            }
+        }
+        return fetchPlacesByIds(ids);
+    }
+
+    private void requestPlacesByIds(List<String> allIds, List<String> missing, Map<String, Place> found,
+                                    RequestLiveData<List<Place>> result) {
         setLoading(true);
         String authHeader = "Bearer " + SUPABASE_KEY;
-        String filter = "ilike.*" + query + "*"; // Supabase ILIKE wildcard syntax: *value* not %value%? No, it's URL encoded % ? 
-        // PostgREST: ilike=*%2Aquery%2A is *query*. Let's try simple ilike.
-        
-        supabaseApi.searchPlaces(SUPABASE_KEY, authHeader, query).enqueue(new Callback<List<Place>>() {
+        // Usually one request; very large sets are split to keep the URL a sane length
+        int chunks = (missing.size() + MAX_IDS_PER_REQUEST - 1) / MAX_IDS_PER_REQUEST;
+        AtomicInteger pending = new AtomicInteger(chunks);
+
+        for (int from = 0; from < missing.size(); from += MAX_IDS_PER_REQUEST) {
+            List<String> chunk = new ArrayList<>(missing.subList(from, Math.min(from + MAX_IDS_PER_REQUEST, missing.size())));
+            String idFilter = "in.(" + TextUtils.join(",", chunk) + ")";
+
+            attach(result, requestCoalescer.enqueue("places:ids:" + idFilter,
+                    () -> supabaseApi.getPlacesByIds(SUPABASE_KEY, authHeader, idFilter),
+                    new Callback<List<Place>>() {
+                @Override
+                public void onResponse(Call<List<Place>> call, Response<List<Place>> response) {
+                    if (response.isSuccessful() && response.body() != null) {
+                        List<Place> fetched = response.body();
+                        for (Place place : fetched) {
+                            if (place.getId() != null) {
+                                found.put(place.getId(), place);
+                            }
+                        }
+                        writeExecutor.execute(() -> persistPlaceDetails(fetched));
+                    } else {
+                        Log.e(TAG, "Batch fetch failed: " + response.code() + " " + response.message());
+                    }
+                    onChunkDone();
+                }
+
+                @Override
+                public void onFailure(Call<List<Place>> call, Throwable t) {
+                    Log.e(TAG, "Batch fetch network error: " + t.getMessage(), t);
+                    onChunkDone();
+                }
+
+                private void onChunkDone() {
+                    if (pending.decrementAndGet() == 0) {
+                        setLoading(false);
+                        result.setValue(orderedByIds(allIds, found));
+                    }
+                }
+            }));
+        }
+    }
+
+    private static List<Place> orderedByIds(List<String> ids, Map<String, Place> placesById) {
+        List<Place> ordered = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Place place = placesById.get(id);
+            if (place != null) {
+                ordered.add(place);
+            }
+        }
+        return ordered;
+    }
+
+    // --- Bulk Loads ---
+
+    /**
+     * Receives a streamed bulk load. Callbacks run on a background thread;
+     * each chunk is already stored in Room when {@code onChunk} is called.
+     */
+    public interface BulkLoadCallback {
+        void onChunk(List<Place> chunk);
+        void onComplete(int total);
+        void onError(String message);
+    }
+
+    /**
+     * Downloads every place of a city (or all places when {@code city} is null) for offline use.
+     * The body is decoded as it arrives, so memory stays at one chunk and the first rows
+     * reach the caller before the download finishes. Rows are requested in keyset pages on id
+     * until a short page arrives, since Supabase silently caps a single response.
+     *
+     * @return handle that aborts the download
+     */
+    public RequestCoalescer.Subscription downloadPlaces(String city, BulkLoadCallback callback) {
+        String queryKey = city != null ? "places:city:" + city : "places:all";
+        BulkLoad load = new BulkLoad();
+
+        bulkLoadExecutor.execute(() -> {
+            int total = 0;
+            String lastId = null;
+            try {
+                while (!load.cancelled) {
+                    Call<ResponseBody> call = supabaseApi.streamPlaces(SUPABASE_KEY, "Bearer " + SUPABASE_KEY,
+                            bulkPageFilters(city, lastId));
+                    load.call = call;
+                    if (load.cancelled) {
+                        break;
+                    }
+                    Response<ResponseBody> response = call.execute();
+                    if (!response.isSuccessful() || response.body() == null) {
+                        callback.onError("Bulk load failed: " + response.code() + " " + response.message());
+                        return;
+                    }
+                    String[] pageLastId = {null};
+                    int pageRows;
+                    try (ResponseBody body = response.body()) {
+                        pageRows = placeStreamDecoder.decode(body.charStream(), chunk -> {
+                            persistPlaces(chunk, null);
+                            pageLastId[0] = chunk.get(chunk.size() - 1).getId();
+                            callback.onChunk(chunk);
+                        });
+                    }
+                    total += pageRows;
+                    if (pageRows < BULK_PAGE_SIZE || pageLastId[0] == null) {
+                        markFresh(queryKey);
+                        Log.d(TAG, "Bulk load stored " + total + " places for " + queryKey);
+                        callback.onComplete(total);
+                        return;
+                    }
+                    lastId = pageLastId[0];
+                }
+                Log.d(TAG, "Bulk load cancelled: " + queryKey);
+            } catch (IOException | RuntimeException e) {
+                if (load.cancelled) {
+                    Log.d(TAG, "Bulk load cancelled: " + queryKey);
+                } else {
+                    Log.e(TAG, "Bulk load failed: " + e.getMessage(), e);
+                    callback.onError("Network error: " + e.getMessage());
+                }
+            }
+        });
+        return load;
+    }
+
+    private static Map<String, String> bulkPageFilters(String city, String afterId) {
+        Map<String, String> filters = new HashMap<>();
+        if (city != null) {
+            filters.put("city", "eq." + city);
+        }
+        if (afterId != null) {
+            filters.put("id", "gt." + afterId);
+        }
+        filters.put("order", "id.asc");
+        filters.put("limit", String.valueOf(BULK_PAGE_SIZE));
+        return filters;
+    }
+
+    /**
+     * Cancels whichever page request of a bulk load is running, and stops it from requesting more.
+     */
+    private static final class BulkLoad implements RequestCoalescer.Subscription {
+        volatile boolean cancelled;
+        volatile Call<ResponseBody> call;
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Call<ResponseBody> current = call;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    // --- Paged Reads ---
+
+    /**
+     * Pages through a city's place summaries from Room, best-rated first, while a remote
+     * mediator fills Room from Supabase one keyset page ahead of the scroll position.
+     * Callers should cache the stream in their lifecycle (PagingLiveData.cachedIn).
+     */
+    public LiveData<PagingData<PlaceSummary>> getPagedPlacesByCity(String city) {
+        return pagedPlaces(Collections.singletonMap("city", "eq." + city),
+                "places:paged:city:" + city, () -> placeDao.pagingSourceByCity(city));
+    }
+
+    /**
+     * Pages through all place summaries, best-rated first.
+     */
+    public LiveData<PagingData<PlaceSummary>> getPagedTopRatedPlaces() {
+        return pagedPlaces(Collections.emptyMap(), "places:paged:top_rated", placeDao::pagingSourceTopRated);
+    }
+
+    /**
+     * Pages through every place of a category, best-rated first.
+     */
+    public LiveData<PagingData<PlaceSummary>> getPagedPlacesByCategory(String category) {
+        return pagedPlaces(Collections.singletonMap("category", "eq." + category),
+                "places:paged:category:" + category, () -> placeDao.pagingSourceByCategory(category));
+    }
+
+    @OptIn(markerClass = ExperimentalPagingApi.class)
+    private LiveData<PagingData<PlaceSummary>> pagedPlaces(Map<String, String> scopeFilters, String queryKey,
+                                                           Function0<PagingSource<Integer, PlaceSummary>> pagingSourceFactory) {
+        String authHeader = "Bearer " + SUPABASE_KEY;
+        PlaceRemoteMediator mediator = new PlaceRemoteMediator(
+                scopeFilters,
+                queryKey,
+                filters -> supabaseApi.getPlaceSummaries(SUPABASE_KEY, authHeader, filters),
+                this::persistSummaries,
+                key -> isFresh(key, PAGED_FIRST_PAGE_MAX_AGE_MS),
+                networkExecutor);
+
+        PagingConfig config = new PagingConfig(PAGE_SIZE, PREFETCH_DISTANCE, false, INITIAL_LOAD_SIZE);
+        Pager<Integer, PlaceSummary> pager = new Pager<>(config, null, mediator, pagingSourceFactory);
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    // --- Summary Reads (lists and maps) ---
+
+    /**
+     * Lightweight variant of {@link #fetchPlacesByCity(String)} for markers and list cells.
+     * Only the {@link PlaceSummary} columns are fetched; open details with {@link #fetchPlaceById(String)}.
+     */
+    public RequestLiveData<List<PlaceSummary>> fetchPlaceSummariesByCity(String city) {
+        Map<String, String> filters = summaryFilters();
+        filters.put("city", "eq." + city);
+        filters.put("order", "rating.desc");
+        return fetchSummaries("summaries:city:" + city, CITY_PLACES_MAX_AGE_MS, filters,
+                () -> placeDao.getPlaceSummariesByCity(city));
+    }
+
+    public RequestLiveData<List<PlaceSummary>> fetchTopRatedPlaceSummaries(int limit) {
+        Map<String, String> filters = summaryFilters();
+        filters.put("order", "rating.desc");
+        filters.put("limit", String.valueOf(limit));
+        return fetchSummaries("summaries:top_rated:" + limit, TOP_RATED_MAX_AGE_MS, filters,
+                () -> placeDao.getTopRatedPlaceSummaries(limit));
+    }
+
+    private Map<String, String> summaryFilters() {
+        Map<String, String> filters = new HashMap<>();
+        filters.put("select", PlaceSummary.SELECT_COLUMNS);
+        return filters;
+    }
+
+    private RequestLiveData<List<PlaceSummary>> fetchSummaries(String queryKey, long maxAgeMs,
+                                                               Map<String, String> filters, Supplier<List<PlaceSummary>> cachedQuery) {
+        RequestLiveData<List<PlaceSummary>> summaries = new RequestLiveData<>();
+
+        queryExecutor.execute(() -> {
+            List<PlaceSummary> cached = cachedQuery.get();
+            if (!cached.isEmpty()) {
+                summaries.postValue(cached);
+                if (isFresh(queryKey, maxAgeMs)) {
+                    return;
+                }
+            }
+            requestSummaries(queryKey, filters, summaries, !cached.isEmpty());
+        });
+        return summaries;
+    }
+
+    private void requestSummaries(String queryKey, Map<String, String> filters,
+                                  RequestLiveData<List<PlaceSummary>> summaries, boolean hasCachedData) {
+        setLoading(true);
+        String authHeader = "Bearer " + SUPABASE_KEY;
+
+        attach(summaries, requestCoalescer.enqueue(queryKey,
+                () -> supabaseApi.getPlaceSummaries(SUPABASE_KEY, authHeader, filters),
+                new Callback<List<PlaceSummary>>() {
+            @Override
+            public void onResponse(Call<List<PlaceSummary>> call, Response<List<PlaceSummary>> response) {
+                setLoading(false);
+                if (response.isSuccessful() && response.body() != null) {
+                    List<PlaceSummary> body = response.body();
+                    summaries.setValue(body);
+                    writeExecutor.execute(() -> persistSummaries(body, queryKey));
+                } else if (!hasCachedData) {
+                    setError("Failed to fetch places: " + response.code() + " " + response.message());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<List<PlaceSummary>> call, Throwable t) {
+                setLoading(false);
+                reportNetworkFailure(t, hasCachedData);
+            }
+        }));
+    }
+
+    /**
+     * Receives the results of a cancellable search.
+     */
+    public interface SearchCallback {
+        void onResults(List<Place> places);
+        void onError(String message);
+    }
+
+    /**
+     * Typeahead search. Answered from the local full-text index (diacritic-folded,
+     * prefix terms, ranked); Supabase is only asked when nothing cached matches.
+     */
+    public RequestLiveData<List<Place>> searchPlaces(String query) {
+        RequestLiveData<List<Place>> searchResults = new RequestLiveData<>();
+        searchResults.attach(searchPlaces(query, new SearchCallback() {
+            @Override
+            public void onResults(List<Place> places) {
+                searchResults.postValue(places);
+            }
+
+            @Override
+            public void onError(String message) {
+                setError(message);
+            }
+        }));
+        return searchResults;
+    }
+
+    /**
+     * Cancellable variant of {@link #searchPlaces(String)}. After {@code cancel()} the callback
+     * is not invoked and a pending network fallback is dropped (or detached, if shared).
+     * Callbacks may arrive on a background thread.
+     */
+    public RequestCoalescer.Subscription searchPlaces(String query, SearchCallback callback) {
+        CancellableSearch search = new CancellableSearch();
+        String match = PlaceSearch.toMatchQuery(query);
+        if (match == null) {
+            callback.onResults(new ArrayList<>());
+            return search;
+        }
+
+        queryExecutor.execute(() -> {
+            if (search.cancelled) return;
+            List<PlaceEntity> local = PlaceSearch.rank(placeDao.searchPlaces(match, SEARCH_CANDIDATE_LIMIT), query);
+            if (search.cancelled) return;
+            if (!local.isEmpty()) {
+                List<PlaceEntity> top = local.subList(0, Math.min(local.size(), SEARCH_MAX_RESULTS));
+                callback.onResults(PlaceEntity.toPlaces(top));
+                return;
+            }
+            search.attach(requestSearch(query.trim(), search, callback));
+        });
+        return search;
+    }
+
+    private RequestCoalescer.Subscription requestSearch(String query, CancellableSearch search,
+                                                        SearchCallback callback) {
+        setLoading(true);
+        String authHeader = "Bearer " + SUPABASE_KEY;
+
+        // PostgREST uses * as the LIKE wildcard; strip characters that would break the or=() list
+        String pattern = "*" + query.replaceAll("[,()*%]", " ").trim() + "*";
+        Map<String, String> filters = new HashMap<>();
+        filters.put("or", "(name.ilike." + pattern + ",city.ilike." + pattern + ")");
+        filters.put("order", "rating.desc.nullslast");
+        filters.put("limit", String.valueOf(SEARCH_MAX_RESULTS));
+
+        RequestCoalescer.Subscription subscription = requestCoalescer.enqueue("places:search:" + query,
+                () -> supabaseApi.searchPlaces(SUPABASE_KEY, authHeader, filters),
+                new Callback<List<Place>>() {
             @Override
             public void onResponse(Call<List<Place>> call, Response<List<Place>> response) {
                 setLoading(false);
                 if (response.isSuccessful() && response.body() != null) {
-                    searchResults.setValue(response.body());
-                } else {
-                    setError("Search failed");
+                    // Cached rows make the next search for this region local
+                    cachePlaces(response.body(), null);
+                    if (!search.cancelled) {
+                        callback.onResults(response.body());
+                    }
+                } else if (!search.cancelled) {
+                    callback.onError("Search failed");
                 }
             }
 
             @Override
             public void onFailure(Call<List<Place>> call, Throwable t) {
                 setLoading(false);
-                setError(t.getMessage());
+                if (!search.cancelled) {
+                    callback.onError(t.getMessage());
+                }
             }
         });
-        return searchResults;
+        // A detached subscriber gets no callback, so clear its loading state here
+        return () -> {
+            subscription.cancel();
+            setLoading(false);
+        };
+    }
+
+    /**
+     * Spans both stages of a search: the local lookup and the optional network fallback.
+     */
+    private static final class CancellableSearch implements RequestCoalescer.Subscription {
+        volatile boolean cancelled;
+        private RequestCoalescer.Subscription network;
+
+        synchronized void attach(RequestCoalescer.Subscription subscription) {
+            if (cancelled) {
+                subscription.cancel();
+            } else {
+                network = subscription;
+            }
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelled = true;
+            if (network != null) {
+                network.cancel();
+                network = null;
+            }
+        }
     }
     
-    public LiveData<List<Place>> fetchTopRatedPlaces(int limit) {
-        MutableLiveData<List<Place>> topRated = new MutableLiveData<>();
+    public RequestLiveData<List<Place>> fetchTopRatedPlaces(int limit) {
+        RequestLiveData<List<Place>> topRated = new RequestLiveData<>();
+        String queryKey = "places:top_rated:" + limit;
+
+        queryExecutor.execute(() -> {
+            List<Place> cached = PlaceEntity.toPlaces(placeDao.getTopRatedPlaces(limit));
+            boolean fresh = isFresh(queryKey, TOP_RATED_MAX_AGE_MS);
+            if (!cached.isEmpty()) {
+                topRated.postValue(cached);
+                updateCachedPlaces(cached);
+                if (fresh) {
+                    return;
+                }
+            }
+            requestTopRatedPlaces(limit, queryKey, topRated, !cached.isEmpty());
+        });
+        return topRated;
+    }
+
+    private void requestTopRatedPlaces(int limit, String queryKey,
+                                       RequestLiveData<List<Place>> topRated, boolean hasCachedData) {
         setLoading(true);
         String authHeader = "Bearer " + SUPABASE_KEY;
         
-        supabaseApi.getTopRatedPlaces(SUPABASE_KEY, authHeader, "rating.desc", limit).enqueue(new Callback<List<Place>>() {
+        attach(topRated, requestCoalescer.enqueue(queryKey,
+                () -> supabaseApi.getTopRatedPlaces(SUPABASE_KEY, authHeader, "rating.desc", limit),
+                new Callback<List<Place>>() {
             @Override
             public void onResponse(Call<List<Place>> call, Response<List<Place>> response) {
                 setLoading(false);
                 if (response.isSuccessful() && response.body() != null) {
                     topRated.setValue(response.body());
                     updateCachedPlaces(response.body());
-                } else {
+                    cachePlaces(response.body(), queryKey);
+                } else if (!hasCachedData) {
                     setError("Failed to fetch top rated");
                 }
             }
@@ -240,15 +1020,24 @@ public class PlaceRepository {
             @Override
             public void onFailure(Call<List<Place>> call, Throwable t) {
                 setLoading(false);
-                setError(t.getMessage());
+                reportNetworkFailure(t, hasCachedData);
             }
-        });
-        
-        return topRated;
+        }));
     }
     
     // --- Utils ---
 
+    /**
+     * Lets {@code target} cancel the request filling it. A detached subscriber gets no callback,
+     * so cancelling also clears the loading state the request set.
+     */
+    private void attach(RequestLiveData<?> target, RequestCoalescer.Subscription request) {
+        target.attach(() -> {
+            request.cancel();
+            setLoading(false);
+        });
+    }
+
     private void setLoading(boolean loading) {
         isLoading.postValue(loading);
     }
@@ -267,6 +1056,155 @@ public class PlaceRepository {
             cachedPlaces.postValue(new ArrayList<>(places));
         }
     }
+
+    // --- Local cache ---
+
+    /**
+     * Must be called off the main thread.
+     */
+    private boolean isFresh(String queryKey, long maxAgeMs) {
+        CacheMetadata metadata = cacheMetadataDao.get(queryKey);
+        return metadata != null && metadata.isFresh(maxAgeMs, System.currentTimeMillis());
+    }
+
+    /**
+     * Writes network results to Room and stamps the query as freshly fetched.
+     */
+    private void cachePlaces(List<Place> places, String queryKey) {
+        if (places == null) return;
+        writeExecutor.execute(() -> persistPlaces(places, queryKey));
+    }
+
+    /**
+     * Synchronous write of places to Room and the spatial index.
+     * A null query key stores the rows without touching freshness metadata.
+     */
+    private void persistPlaces(List<Place> places, String queryKey) {
+        long now = System.currentTimeMillis();
+        placeDao.insertPlaces(PlaceEntity.fromPlaces(places, now));
+        if (queryKey != null) {
+            cacheMetadataDao.upsert(new CacheMetadata(queryKey, now));
+        }
+        indexPlaces(places);
+    }
+
+    /**
+     * Synchronous partial write of summary rows; detail columns of existing rows are kept.
+     */
+    private void persistSummaries(List<PlaceSummary> summaries, String queryKey) {
+        List<PlaceSummary> valid = new ArrayList<>(summaries.size());
+        for (PlaceSummary summary : summaries) {
+            if (summary != null && summary.getId() != null) {
+                valid.add(summary);
+                if (summary.hasLocation()) {
+                    placeIndex.put(summary.getId(), summary.getLatitude(), summary.getLongitude(), summary.getId());
+                }
+            }
+        }
+        placeDao.upsertSummaries(valid);
+        if (queryKey != null) {
+            cacheMetadataDao.upsert(new CacheMetadata(queryKey, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Stores fully fetched places and marks each one's details as fresh,
+     * so opening any of them later needs no request.
+     */
+    private void persistPlaceDetails(List<Place> places) {
+        persistPlaces(places, null);
+        long now = System.currentTimeMillis();
+        List<CacheMetadata> metadata = new ArrayList<>(places.size());
+        for (Place place : places) {
+            if (place.getId() != null) {
+                metadata.add(new CacheMetadata("place:" + place.getId(), now));
+            }
+        }
+        cacheMetadataDao.upsertAll(metadata);
+    }
+
+    private void markFresh(String queryKey) {
+        cacheMetadataDao.upsert(new CacheMetadata(queryKey, System.currentTimeMillis()));
+    }
+
+    /**
+     * Moves the sync cursor past the newest applied row and remembers the response ETag.
+     * Must be called on the write executor, after the rows are persisted.
+     */
+    private void advanceSyncCursor(String scope, SyncCursor previous, List<Place> applied, String etag) {
+        String maxUpdatedAt = previous != null ? previous.getMaxUpdatedAt() : null;
+        for (Place place : applied) {
+            maxUpdatedAt = DeltaSync.newer(maxUpdatedAt, place.getUpdatedAt());
+        }
+        syncCursorDao.upsert(new SyncCursor(scope, maxUpdatedAt, etag));
+    }
+
+    private void indexPlaces(List<Place> places) {
+        for (Place place : places) {
+            if (place.getId() != null && place.getLatitude() != null && place.getLongitude() != null) {
+                placeIndex.put(place.getId(), place.getLatitude(), place.getLongitude(), place.getId());
+            }
+        }
+    }
+
+    private void warmPlaceIndex() {
+        List<PlaceLocation> locations = placeDao.getPlaceLocations();
+        for (PlaceLocation location : locations) {
+            placeIndex.put(location.id, location.latitude, location.longitude, location.id);
+        }
+        Log.d(TAG, "Spatial index warmed with " + locations.size() + " cached places");
+    }
+
+    /**
+     * Loads full rows for index hits from Room, keeping the hits' distance order.
+     * Must be called on the query executor.
+     */
+    private List<Place> loadIndexedPlaces(List<GeoGridIndex.Neighbor<String>> hits) {
+        List<Place> places = new ArrayList<>(hits.size());
+        if (hits.isEmpty()) {
+            return places;
+        }
+        List<String> ids = new ArrayList<>(hits.size());
+        for (GeoGridIndex.Neighbor<String> hit : hits) {
+            ids.add(hit.getKey());
+        }
+        Map<String, PlaceEntity> rowsById = loadRowsById(ids);
+        for (GeoGridIndex.Neighbor<String> hit : hits) {
+            PlaceEntity entity = rowsById.get(hit.getKey());
+            if (entity != null) {
+                Place place = entity.toPlace();
+                place.setDistanceFromUser(hit.getDistanceKm());
+                places.add(place);
+            }
+        }
+        return places;
+    }
+
+    /**
+     * Cached rows for the given ids, queried in chunks below SQLite's bound-variable limit.
+     * Must be called on a database executor.
+     */
+    private Map<String, PlaceEntity> loadRowsById(List<String> ids) {
+        Map<String, PlaceEntity> rowsById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            for (PlaceEntity entity : placeDao.getPlacesByIds(chunk)) {
+                rowsById.put(entity.getId(), entity);
+            }
+        }
+        return rowsById;
+    }
+
+    /**
+     * A failed revalidation is not surfaced when cached rows are already on screen.
+     */
+    private void reportNetworkFailure(Throwable t, boolean hasCachedData) {
+        if (hasCachedData) {
+            Log.w(TAG, "Background refresh failed, keeping cached data: " + t.getMessage());
+        } else {
+            setError("Network error: " + t.getMessage());
+        }
+    }
     
     private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
         final double EARTH_RADIUS_KM = 6371.0;
@@ -287,42 +1225,47 @@ public class PlaceRepository {
         });
     }
     
-    // Stub for Optimize Trajectory (Keep logic if useful, but it relies on fetched places)
+    /**
+     * Orders places by repeatedly visiting the nearest unvisited one (nearest-neighbor tour).
+     * Each step is a k=1 query on a spatial index, so the tour avoids rescanning every place.
+     */
     public List<Place> optimizeTrajectory(List<Place> places, double startLat, double startLon) {
-        if (places == null || places.isEmpty()) return new ArrayList<>();
-        List<Place> optimizedRoute = new ArrayList<>();
-        List<Place> remainingPlaces = new ArrayList<>(places);
-        double currentLat = startLat;
-        double currentLon = startLon;
+        return nearestNeighborTour(places, place -> place.getLocation() != null,
+                Place::getLatitude, Place::getLongitude, startLat, startLon);
+    }
 
-        while (!remainingPlaces.isEmpty()) {
-            Place nearestPlace = null;
-            double nearestDistance = Double.MAX_VALUE;
-            int nearestIndex = -1;
-
-            for (int i = 0; i < remainingPlaces.size(); i++) {
-                Place place = remainingPlaces.get(i);
-                GeoPoint location = place.getLocation();
-                if (location != null) {
-                    double distance = calculateDistance(currentLat, currentLon, location.getLatitude(), location.getLongitude());
-                    if (distance < nearestDistance) {
-                        nearestDistance = distance;
-                        nearestPlace = place;
-                        nearestIndex = i;
-                    }
-                }
-            }
+    /**
+     * Same tour for map markers that only carry summary data.
+     */
+    public List<PlaceSummary> optimizeSummaryTrajectory(List<PlaceSummary> places, double startLat, double startLon) {
+        return nearestNeighborTour(places, PlaceSummary::hasLocation,
+                PlaceSummary::getLatitude, PlaceSummary::getLongitude, startLat, startLon);
+    }
 
-            if (nearestPlace != null) {
-                optimizedRoute.add(nearestPlace);
-                remainingPlaces.remove(nearestIndex);
-                GeoPoint location = nearestPlace.getLocation();
-                if (location != null) {
-                    currentLat = location.getLatitude();
-                    currentLon = location.getLongitude();
-                }
+    private <T> List<T> nearestNeighborTour(List<T> places, Predicate<T> hasLocation,
+                                            ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude,
+                                            double startLat, double startLon) {
+        if (places == null || places.isEmpty()) return new ArrayList<>();
+        GeoGridIndex<T> remaining = new GeoGridIndex<>();
+        for (int i = 0; i < places.size(); i++) {
+            T place = places.get(i);
+            if (hasLocation.test(place)) {
+                remaining.put(String.valueOf(i), latitude.applyAsDouble(place), longitude.applyAsDouble(place), place);
             }
         }
+
+        List<T> optimizedRoute = new ArrayList<>(remaining.size());
+        double currentLat = startLat;
+        double currentLon = startLon;
+        while (remaining.size() > 0) {
+            List<GeoGridIndex.Neighbor<T>> nearest = remaining.nearest(currentLat, currentLon, 1);
+            if (nearest.isEmpty()) break;
+            GeoGridIndex.Neighbor<T> next = nearest.get(0);
+            remaining.remove(next.getKey());
+            optimizedRoute.add(next.getValue());
+            currentLat = latitude.applyAsDouble(next.getValue());
+            currentLon = longitude.applyAsDouble(next.getValue());
+        }
         return optimizedRoute;
     }
 
@@ -0,0 +1,46 @@
+package com.example.moresqplore.data.repository;
+
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.moresqplore.data.network.RequestCoalescer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LiveData filled by a repository request that can be cancelled.
+ *
+ * Cancelling detaches the network requests still filling it; a request shared with other
+ * callers keeps running for them. ViewModels cancel what they requested in onCleared.
+ */
+public class RequestLiveData<T> extends MutableLiveData<T> implements RequestCoalescer.Subscription {
+
+    private final List<RequestCoalescer.Subscription> requests = new ArrayList<>();
+    private boolean cancelled;
+
+    /**
+     * Registers a request filling this LiveData; cancelled right away if this already is.
+     */
+    void attach(RequestCoalescer.Subscription request) {
+        synchronized (this) {
+            if (!cancelled) {
+                requests.add(request);
+                return;
+            }
+        }
+        request.cancel();
+    }
+
+    @Override
+    public void cancel() {
+        List<RequestCoalescer.Subscription> pending;
+        synchronized (this) {
+            cancelled = true;
+            pending = new ArrayList<>(requests);
+            requests.clear();
+        }
+        for (RequestCoalescer.Subscription request : pending) {
+            request.cancel();
+        }
+    }
+}
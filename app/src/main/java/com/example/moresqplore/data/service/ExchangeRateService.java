@@ -4,15 +4,16 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
-import org.json.JSONObject;
+import com.example.moresqplore.data.network.ExchangeRateApi;
+import com.example.moresqplore.data.network.NetworkModule;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
 /**
  * Service for fetching real-time exchange rates
  * Uses ExchangeRate-API.io (Free tier: 1500 requests/month)
@@ -23,7 +24,6 @@ public class ExchangeRateService {
 
     // TODO: Replace with your API key from https://www.exchangerate-api.com/
     private static final String API_KEY = "c70b888ef5a47aa9c51a12a3";
-    private static final String BASE_URL = "https://v6.exchangerate-api.com/v6/";
 
     // Cache rates for 24 hours to minimize API calls
     private Map<String, Double> cachedRates = new HashMap<>();
@@ -41,6 +41,8 @@ public class ExchangeRateService {
     };
 
     private Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExchangeRateApi exchangeRateApi =
+            NetworkModule.getExchangeRateRetrofit().create(ExchangeRateApi.class);
 
     public interface ExchangeRateCallback {
         void onSuccess(Map<String, Double> rates);
@@ -67,73 +69,67 @@ public class ExchangeRateService {
             return;
         }
 
-        // Fetch from API in background thread
-        new Thread(() -> {
-            try {
-                Log.d(TAG, "Fetching exchange rates from API...");
-
-                String urlString = BASE_URL + API_KEY + "/latest/MAD";
-                URL url = new URL(urlString);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setConnectTimeout(10000);
-                conn.setReadTimeout(10000);
-
-                int responseCode = conn.getResponseCode();
-                if (responseCode != 200) {
-                    throw new Exception("API returned code: " + responseCode);
-                }
-
-                BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(conn.getInputStream()));
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-                reader.close();
-                conn.disconnect();
-
-                // Parse JSON response
-                JSONObject json = new JSONObject(response.toString());
-
-                // Check if request was successful
-                String result = json.getString("result");
-                if (!"success".equals(result)) {
-                    throw new Exception("API request failed: " + result);
+        // Fetch from API; Retrofit delivers the callback on the main thread
+        Log.d(TAG, "Fetching exchange rates from API...");
+        exchangeRateApi.getLatestRates(API_KEY, "MAD").enqueue(new Callback<ExchangeRateApi.LatestRates>() {
+            @Override
+            public void onResponse(Call<ExchangeRateApi.LatestRates> call, Response<ExchangeRateApi.LatestRates> response) {
+                try {
+                    if (!response.isSuccessful() || response.body() == null) {
+                        throw new Exception("API returned code: " + response.code());
+                    }
+
+                    // Check if request was successful
+                    ExchangeRateApi.LatestRates body = response.body();
+                    if (!"success".equals(body.result) || body.conversionRates == null) {
+                        throw new Exception("API request failed: " + body.result);
+                    }
+
+                    Map<String, Double> rates = body.conversionRates;
+
+                    // Extract rates we need (convert to MAD base)
+                    Map<String, Double> rateMap = new HashMap<>();
+                    rateMap.put("MAD", 1.0);
+                    rateMap.put("USD", 1.0 / requireRate(rates, "USD"));
+                    rateMap.put("EUR", 1.0 / requireRate(rates, "EUR"));
+                    rateMap.put("GBP", 1.0 / requireRate(rates, "GBP"));
+
+                    cachedRates = rateMap;
+                    lastUpdate = System.currentTimeMillis();
+
+                    Log.d(TAG, "Exchange rates updated successfully");
+                    Log.d(TAG, "1 USD = " + String.format("%.2f", rateMap.get("USD")) + " MAD");
+                    Log.d(TAG, "1 EUR = " + String.format("%.2f", rateMap.get("EUR")) + " MAD");
+                    Log.d(TAG, "1 GBP = " + String.format("%.2f", rateMap.get("GBP")) + " MAD");
+
+                    callback.onSuccess(rateMap);
+                } catch (Exception e) {
+                    useFallbackRates(e, callback);
                 }
+            }
 
-                JSONObject rates = json.getJSONObject("conversion_rates");
-
-                // Extract rates we need (convert to MAD base)
-                Map<String, Double> rateMap = new HashMap<>();
-                rateMap.put("MAD", 1.0);
-                rateMap.put("USD", 1.0 / rates.getDouble("USD"));
-                rateMap.put("EUR", 1.0 / rates.getDouble("EUR"));
-                rateMap.put("GBP", 1.0 / rates.getDouble("GBP"));
-
-                cachedRates = rateMap;
-                lastUpdate = System.currentTimeMillis();
-
-                Log.d(TAG, "Exchange rates updated successfully");
-                Log.d(TAG, "1 USD = " + String.format("%.2f", rateMap.get("USD")) + " MAD");
-                Log.d(TAG, "1 EUR = " + String.format("%.2f", rateMap.get("EUR")) + " MAD");
-                Log.d(TAG, "1 GBP = " + String.format("%.2f", rateMap.get("GBP")) + " MAD");
-
-                mainHandler.post(() -> callback.onSuccess(rateMap));
+            @Override
+            public void onFailure(Call<ExchangeRateApi.LatestRates> call, Throwable t) {
+                useFallbackRates(t, callback);
+            }
+        });
+    }
 
-            } catch (Exception e) {
-                Log.e(TAG, "Error fetching exchange rates: " + e.getMessage());
+    private void useFallbackRates(Throwable t, ExchangeRateCallback callback) {
+        Log.e(TAG, "Error fetching exchange rates: " + t.getMessage());
 
-                // Use fallback rates
-                cachedRates = new HashMap<>(FALLBACK_RATES);
+        // Use fallback rates
+        cachedRates = new HashMap<>(FALLBACK_RATES);
+        Log.w(TAG, "Using fallback exchange rates");
+        callback.onSuccess(cachedRates);
+    }
 
-                mainHandler.post(() -> {
-                    Log.w(TAG, "Using fallback exchange rates");
-                    callback.onSuccess(cachedRates);
-                });
-            }
-        }).start();
+    private static double requireRate(Map<String, Double> rates, String currency) throws Exception {
+        Double rate = rates.get(currency);
+        if (rate == null || rate == 0) {
+            throw new Exception("Missing rate for " + currency);
+        }
+        return rate;
     }
 
     /**
@@ -7,9 +7,6 @@ import com.example.moresqplore.data.model.DayPlan;
 import com.example.moresqplore.data.model.Itinerary;
 import com.example.moresqplore.data.model.Place;
 import com.example.moresqplore.data.repository.GeminiChatRepository;
-import com.example.moresqplore.data.model.ChatMessage;
-
-import androidx.lifecycle.Observer;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -45,19 +42,13 @@ public class ItineraryService {
 
         Log.d(TAG, "Generating itinerary with AI...");
 
-        // Observe conversation history for AI response
-        Observer<List<ChatMessage>> observer = new Observer<List<ChatMessage>>() {
-            @Override
-            public void onChanged(List<ChatMessage> messages) {
-                if (messages != null && !messages.isEmpty()) {
-                    ChatMessage lastMessage = messages.get(messages.size() - 1);
-
-                    // Check if it's an assistant response (not user message)
-                    if (!lastMessage.isUser()) {
-                        geminiRepository.getConversationHistory().removeObserver(this);
-
+        // Send message to Gemini; interactive chat goes first if the rate limit is reached, so
+        // wait for this prompt's own answer rather than the next change of the loading flag
+        geminiRepository.sendBackgroundMessage(prompt, "itinerary", null,
+                new GeminiChatRepository.AnswerCallback() {
+                    @Override
+                    public void onAnswer(String aiResponse) {
                         try {
-                            String aiResponse = lastMessage.getContent();
                             Itinerary generatedItinerary = parseAIResponse(aiResponse, itineraryRequest);
 
                             // Calculate optimization score
@@ -72,14 +63,13 @@ public class ItineraryService {
                             Log.e(TAG, "Error parsing AI response", e);
                         }
                     }
-                }
-            }
-        };
-
-        geminiRepository.getConversationHistory().observeForever(observer);
 
-        // Send message to Gemini
-        geminiRepository.sendMessage(prompt);
+                    @Override
+                    public void onFailure(String errorMessage) {
+                        listener.onFailure(new IllegalStateException(
+                                "No response received from AI: " + errorMessage));
+                    }
+                });
     }
 
     /**
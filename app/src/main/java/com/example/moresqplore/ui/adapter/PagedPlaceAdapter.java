@@ -0,0 +1,58 @@
+package com.example.moresqplore.ui.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+import com.example.moresqplore.R;
+import com.example.moresqplore.data.model.PlaceSummary;
+import java.util.Objects;
+
+/**
+ * Paged counterpart of {@link PlaceAdapter}: items arrive page by page from a
+ * PagingData stream and are diffed instead of rebinding the whole list.
+ */
+public class PagedPlaceAdapter extends PagingDataAdapter<PlaceSummary, PlaceAdapter.PlaceViewHolder> {
+
+    private static final DiffUtil.ItemCallback<PlaceSummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<PlaceSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PlaceSummary oldItem, @NonNull PlaceSummary newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull PlaceSummary oldItem, @NonNull PlaceSummary newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getCategory(), newItem.getCategory())
+                    && Objects.equals(oldItem.getRating(), newItem.getRating())
+                    && Objects.equals(oldItem.getReviewCount(), newItem.getReviewCount())
+                    && Objects.equals(oldItem.getTicketPrice(), newItem.getTicketPrice())
+                    && Objects.equals(oldItem.getFreeEntry(), newItem.getFreeEntry())
+                    && Objects.equals(oldItem.getThumbnailUrl(), newItem.getThumbnailUrl());
+        }
+    };
+
+    private final PlaceAdapter.OnPlaceClickListener listener;
+
+    public PagedPlaceAdapter(PlaceAdapter.OnPlaceClickListener listener) {
+        super(DIFF_CALLBACK);
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public PlaceAdapter.PlaceViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_place, parent, false);
+        return new PlaceAdapter.PlaceViewHolder(view, listener);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull PlaceAdapter.PlaceViewHolder holder, int position) {
+        PlaceSummary place = getItem(position);
+        if (place != null) {
+            holder.bind(place);
+        }
+    }
+}
@@ -9,24 +9,24 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.example.moresqplore.R;
-import com.example.moresqplore.data.model.Place;
+import com.example.moresqplore.data.model.PlaceSummary;
 import java.util.ArrayList;
 import java.util.List;
 
 public class PlaceAdapter extends RecyclerView.Adapter<PlaceAdapter.PlaceViewHolder> {
 
-    private List<Place> places = new ArrayList<>();
+    private List<PlaceSummary> places = new ArrayList<>();
     private final OnPlaceClickListener listener;
 
     public interface OnPlaceClickListener {
-        void onPlaceClick(Place place);
+        void onPlaceClick(PlaceSummary place);
     }
 
     public PlaceAdapter(OnPlaceClickListener listener) {
         this.listener = listener;
     }
 
-    public void setPlaces(List<Place> places) {
+    public void setPlaces(List<PlaceSummary> places) {
         this.places = places;
         notifyDataSetChanged();
     }
@@ -35,12 +35,12 @@ public class PlaceAdapter extends RecyclerView.Adapter<PlaceAdapter.PlaceViewHol
     @Override
     public PlaceViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_place, parent, false);
-        return new PlaceViewHolder(view);
+        return new PlaceViewHolder(view, listener);
     }
 
     @Override
     public void onBindViewHolder(@NonNull PlaceViewHolder holder, int position) {
-        Place place = places.get(position);
+        PlaceSummary place = places.get(position);
         holder.bind(place);
     }
 
@@ -49,15 +49,20 @@ public class PlaceAdapter extends RecyclerView.Adapter<PlaceAdapter.PlaceViewHol
         return places.size();
     }
 
-    class PlaceViewHolder extends RecyclerView.ViewHolder {
+    /**
+     * Shared with {@link PagedPlaceAdapter}; remembers the bound place so clicks
+     * don't depend on how the owning adapter stores its items.
+     */
+    static class PlaceViewHolder extends RecyclerView.ViewHolder {
         private final ImageView imgThumbnail;
         private final TextView tvName;
         private final TextView tvCategory;
         private final TextView tvRating;
         private final TextView tvReviewCount;
         private final TextView tvPrice;
+        private PlaceSummary boundPlace;
 
-        public PlaceViewHolder(@NonNull View itemView) {
+        public PlaceViewHolder(@NonNull View itemView, OnPlaceClickListener listener) {
             super(itemView);
             imgThumbnail = itemView.findViewById(R.id.imgPlaceThumbnail);
             tvName = itemView.findViewById(R.id.tvPlaceName);
@@ -67,14 +72,14 @@ public class PlaceAdapter extends RecyclerView.Adapter<PlaceAdapter.PlaceViewHol
             tvPrice = itemView.findViewById(R.id.tvPrice);
 
             itemView.setOnClickListener(v -> {
-                int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onPlaceClick(places.get(position));
+                if (boundPlace != null && listener != null) {
+                    listener.onPlaceClick(boundPlace);
                 }
             });
         }
 
-        public void bind(Place place) {
+        public void bind(PlaceSummary place) {
+            boundPlace = place;
             tvName.setText(place.getName());
             tvCategory.setText(place.getCategory());
             
@@ -87,7 +92,7 @@ public class PlaceAdapter extends RecyclerView.Adapter<PlaceAdapter.PlaceViewHol
             tvReviewCount.setText("(" + count + ")");
 
             // Handle Price
-            if (place.isFreeEntry()) {
+            if (Boolean.TRUE.equals(place.getFreeEntry())) {
                 tvPrice.setText("Free");
                 tvPrice.setTextColor(itemView.getContext().getColor(android.R.color.holo_green_dark));
             } else if (place.getTicketPrice() != null) {
@@ -5,11 +5,14 @@ import android.view.View;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.moresqplore.databinding.ActivityChatBinding;
 
+import kotlin.Unit;
+
 public class ChatActivity extends AppCompatActivity {
 
     private ActivityChatBinding binding;
@@ -42,15 +45,28 @@ public class ChatActivity extends AppCompatActivity {
         io.noties.markwon.Markwon markwon = io.noties.markwon.Markwon.create(this);
         
         chatAdapter = new ChatAdapter(markwon);
+        // Messages are paged newest first, so the list is reversed and position 0 is the bottom
         binding.recyclerViewMessages.setLayoutManager(
-                new LinearLayoutManager(this, LinearLayoutManager.VERTICAL, false));
+                new LinearLayoutManager(this, LinearLayoutManager.VERTICAL, true));
         binding.recyclerViewMessages.setAdapter(chatAdapter);
 
         chatAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
             @Override
             public void onItemRangeInserted(int positionStart, int itemCount) {
                 super.onItemRangeInserted(positionStart, itemCount);
-                binding.recyclerViewMessages.smoothScrollToPosition(chatAdapter.getItemCount() - 1);
+                // Older pages are inserted at the far end; only follow new messages
+                if (positionStart == 0) {
+                    binding.recyclerViewMessages.smoothScrollToPosition(0);
+                }
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+                super.onItemRangeChanged(positionStart, itemCount, payload);
+                // Keep the bottom of a streaming answer in view as it grows
+                if (positionStart == 0) {
+                    binding.recyclerViewMessages.scrollToPosition(0);
+                }
             }
         });
     }
@@ -84,11 +100,11 @@ public class ChatActivity extends AppCompatActivity {
     }
 
     private void setupObservers() {
-        viewModel.getMessages().observe(this, messages -> {
-            if (messages != null) {
-                chatAdapter.setMessages(messages);
-                binding.emptyState.setVisibility(messages.isEmpty() ? View.VISIBLE : View.GONE);
-            }
+        viewModel.getMessages().observe(this, pagingData -> chatAdapter.submitData(getLifecycle(), pagingData));
+        chatAdapter.addLoadStateListener(loadStates -> {
+            boolean empty = loadStates.getRefresh() instanceof LoadState.NotLoading && chatAdapter.getItemCount() == 0;
+            binding.emptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+            return Unit.INSTANCE;
         });
 
         viewModel.getIsLoading().observe(this, isLoading -> {
@@ -5,39 +5,67 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.moresqplore.R;
 import com.example.moresqplore.data.model.ChatMessage;
 import io.noties.markwon.Markwon;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class ChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+/**
+ * Chat bubbles paged from the stored conversation, newest first (the list is laid out reversed).
+ * Diffed by message id so a streaming answer rebinds only its own text.
+ */
+public class ChatAdapter extends PagingDataAdapter<ChatMessage, RecyclerView.ViewHolder> {
 
     private static final int VIEW_TYPE_USER = 1;
     private static final int VIEW_TYPE_ASSISTANT = 2;
     private static final int VIEW_TYPE_LOADING = 3;
 
-    private List<ChatMessage> messages = new ArrayList<>();
-    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-    private Markwon markwon;
+    // Only the text of the message changed (a streamed chunk arrived)
+    private static final Object PAYLOAD_CONTENT = new Object();
+
+    private static final DiffUtil.ItemCallback<ChatMessage> DIFF_CALLBACK = new DiffUtil.ItemCallback<ChatMessage>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ChatMessage oldItem, @NonNull ChatMessage newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ChatMessage oldItem, @NonNull ChatMessage newItem) {
+            return oldItem.isLoading() == newItem.isLoading()
+                    && Objects.equals(oldItem.getRole(), newItem.getRole())
+                    && Objects.equals(oldItem.getContent(), newItem.getContent());
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull ChatMessage oldItem, @NonNull ChatMessage newItem) {
+            if (oldItem.isLoading() == newItem.isLoading()
+                    && Objects.equals(oldItem.getRole(), newItem.getRole())) {
+                return PAYLOAD_CONTENT;
+            }
+            return null;
+        }
+    };
+
+    private final Markwon markwon;
 
     public ChatAdapter(Markwon markwon) {
+        super(DIFF_CALLBACK);
         this.markwon = markwon;
     }
 
-    public void setMessages(List<ChatMessage> messages) {
-        this.messages = messages != null ? messages : new ArrayList<>();
-        notifyDataSetChanged();
-    }
-
     @Override
     public int getItemViewType(int position) {
-        ChatMessage message = messages.get(position);
+        ChatMessage message = getItem(position);
 
-        if (message.isLoading()) {
+        if (message == null || message.isLoading()) {
             return VIEW_TYPE_LOADING;
         } else if (message.isUser()) {
             return VIEW_TYPE_USER;
@@ -63,9 +91,23 @@ public class ChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         }
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        ChatMessage message = getItem(position);
+        if (message != null && payloads.contains(PAYLOAD_CONTENT) && holder instanceof AssistantMessageHolder) {
+            ((AssistantMessageHolder) holder).bindContent(message, markwon);
+            return;
+        }
+        super.onBindViewHolder(holder, position, payloads);
+    }
+
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        ChatMessage message = messages.get(position);
+        ChatMessage message = getItem(position);
+        if (message == null) {
+            return;
+        }
 
         if (holder instanceof UserMessageHolder) {
             ((UserMessageHolder) holder).bind(message, markwon);
@@ -74,11 +116,6 @@ public class ChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return messages.size();
-    }
-
     static class UserMessageHolder extends RecyclerView.ViewHolder {
         private final TextView textMessage;
         private final TextView textTime;
@@ -112,14 +149,18 @@ public class ChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
         }
 
         void bind(ChatMessage message, Markwon markwon) {
+            bindContent(message, markwon);
+            SimpleDateFormat format = new SimpleDateFormat("HH:mm", Locale.getDefault());
+            textTime.setText(format.format(message.getTimestamp()));
+        }
+
+        void bindContent(ChatMessage message, Markwon markwon) {
             // Use Markwon to render markdown
             if (markwon != null) {
                 markwon.setMarkdown(textMessage, message.getContent());
             } else {
                 textMessage.setText(message.getContent());
             }
-            SimpleDateFormat format = new SimpleDateFormat("HH:mm", Locale.getDefault());
-            textTime.setText(format.format(message.getTimestamp()));
         }
     }
 
@@ -5,6 +5,9 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import com.example.moresqplore.data.model.ChatMessage;
 import com.example.moresqplore.data.model.Place;
 import com.example.moresqplore.data.repository.GeminiChatRepository;
@@ -14,17 +17,20 @@ public class ChatViewModel extends AndroidViewModel {
 
     private final GeminiChatRepository chatRepository;
 
-    private final MutableLiveData<List<ChatMessage>> messages = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> error = new MutableLiveData<>();
+    // Built once and cached in the ViewModel, so loaded pages survive rotation
+    private final LiveData<PagingData<ChatMessage>> messages;
 
     public ChatViewModel(@NonNull Application application) {
         super(application);
         chatRepository = GeminiChatRepository.getInstance();
 
-        chatRepository.getConversationHistory().observeForever(this.messages::setValue);
         chatRepository.isLoading().observeForever(this.isLoading::setValue);
         chatRepository.getError().observeForever(this.error::setValue);
+
+        messages = PagingLiveData.cachedIn(chatRepository.getPagedConversation(),
+                ViewModelKt.getViewModelScope(this));
     }
 
     public void sendMessage(String message) {
@@ -45,7 +51,10 @@ public class ChatViewModel extends AndroidViewModel {
         chatRepository.clearConversation();
     }
 
-    public LiveData<List<ChatMessage>> getMessages() { return messages; }
+    /**
+     * Paged stream of the current conversation, shared by every observer of this ViewModel.
+     */
+    public LiveData<PagingData<ChatMessage>> getMessages() { return messages; }
     public LiveData<Boolean> getIsLoading() { return isLoading; }
     public LiveData<String> getError() { return error; }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.bumptech.glide.Glide;
 import com.example.moresqplore.data.model.Place;
 import com.example.moresqplore.R;
+import com.example.moresqplore.data.network.NetworkModule;
 import com.example.moresqplore.data.network.WikiService;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
@@ -20,8 +21,6 @@ import com.google.android.material.chip.Chip;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 public class PlaceDetailsActivity extends AppCompatActivity {
 
@@ -102,12 +101,7 @@ public class PlaceDetailsActivity extends AppCompatActivity {
     }
 
     private void fetchWikiData() {
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl("https://en.wikipedia.org/api/rest_v1/")
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-
-        WikiService service = retrofit.create(WikiService.class);
+        WikiService service = NetworkModule.getWikipediaRetrofit().create(WikiService.class);
 
         // Use place name for query
         Call<WikiService.WikiSummary> call = service.getSummary(place.getName().replace(" ", "_"));
@@ -1,6 +1,9 @@
 package com.example.moresqplore.ui.places;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
@@ -9,9 +12,13 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Observer;
 
 import com.example.moresqplore.data.model.Place;
+import com.example.moresqplore.data.network.RequestCoalescer;
 import com.example.moresqplore.data.repository.PlaceRepository;
+import com.example.moresqplore.data.repository.RequestLiveData;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * ViewModel for managing Place details and related data.
@@ -39,6 +46,19 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
     private final MutableLiveData<String> searchQuery = new MutableLiveData<>();
     private final MutableLiveData<List<Place>> searchResults = new MutableLiveData<>();
 
+    // Search-as-you-type: keystrokes are debounced, only the latest query may publish
+    // results, and recent results are served from memory
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+    private static final int RECENT_SEARCHES = 20;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<String, List<Place>> recentSearches = new LruCache<>(RECENT_SEARCHES);
+    private Runnable pendingSearch;
+    private RequestCoalescer.Subscription activeSearch;
+    private int searchGeneration;
+
+    // Repository requests started by this ViewModel, released in onCleared
+    private final List<Runnable> requestReleases = new ArrayList<>();
+
     // Active filters
     private final MutableLiveData<String> selectedCategory = new MutableLiveData<>();
     private final MutableLiveData<String> selectedCity = new MutableLiveData<>();
@@ -102,8 +122,8 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
         isLoading.setValue(true);
 
         // Observe the LiveData from repository
-        LiveData<Place> placeLiveData = placeRepository.fetchPlaceById(placeId);
-        placeLiveData.observeForever(loadedPlace -> {
+        RequestLiveData<Place> placeLiveData = placeRepository.fetchPlaceById(placeId);
+        observeRequest(placeLiveData, loadedPlace -> {
             place.setValue(loadedPlace);
             isLoading.setValue(false);
 
@@ -131,7 +151,7 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
      */
     public void fetchAllPlaces() {
         isLoading.setValue(true);
-        placeRepository.fetchAllPlaces();
+        requestReleases.add(placeRepository.fetchAllPlaces()::cancel);
     }
 
     /**
@@ -145,10 +165,10 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
         isLoading.setValue(true);
         searchRadius.setValue(radiusKm);
 
-        LiveData<List<Place>> nearbyPlacesLiveData =
+        RequestLiveData<List<Place>> nearbyPlacesLiveData =
                 placeRepository.fetchNearbyPlaces(latitude, longitude, radiusKm);
 
-        nearbyPlacesLiveData.observeForever(places -> {
+        observeRequest(nearbyPlacesLiveData, places -> {
             nearbyPlaces.setValue(places);
             isLoading.setValue(false);
         });
@@ -168,10 +188,15 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
         selectedCategory.setValue(category);
         isLoading.setValue(true);
 
-        LiveData<List<Place>> categoryPlacesLiveData =
-                placeRepository.fetchPlacesByCategory(category);
+        // Scoped to the selected city when there is one, so chip switches hit the local index
+        RequestLiveData<List<Place>> categoryPlacesLiveData =
+                placeRepository.fetchPlacesByCategory(selectedCity.getValue(), category);
 
-        categoryPlacesLiveData.observeForever(places -> {
+        observeRequest(categoryPlacesLiveData, places -> {
+            // Ignore late results for a chip the user already switched away from
+            if (!category.equals(selectedCategory.getValue())) {
+                return;
+            }
             filteredPlaces.setValue(places);
             isLoading.setValue(false);
         });
@@ -191,10 +216,10 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
         selectedCity.setValue(city);
         isLoading.setValue(true);
 
-        LiveData<List<Place>> cityPlacesLiveData =
+        RequestLiveData<List<Place>> cityPlacesLiveData =
                 placeRepository.fetchPlacesByCity(city);
 
-        cityPlacesLiveData.observeForever(places -> {
+        observeRequest(cityPlacesLiveData, places -> {
             filteredPlaces.setValue(places);
             isLoading.setValue(false);
         });
@@ -208,42 +233,100 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
     public void loadTopRatedPlaces(int limit) {
         isLoading.setValue(true);
 
-        LiveData<List<Place>> topRatedLiveData =
+        RequestLiveData<List<Place>> topRatedLiveData =
                 placeRepository.fetchTopRatedPlaces(limit);
 
-        topRatedLiveData.observeForever(places -> {
+        observeRequest(topRatedLiveData, places -> {
             filteredPlaces.setValue(places);
             isLoading.setValue(false);
         });
     }
 
     /**
-     * Searches places by name or description.
+     * Searches places as the user types.
+     * The query runs once typing pauses; a newer query cancels the one in flight,
+     * and repeated queries are answered from the recent-results cache.
      *
-     * @param query Search query string
+     * @param query Search query string; blank clears the results
      */
     public void searchPlaces(String query) {
+        cancelPendingSearch();
         if (query == null || query.trim().isEmpty()) {
-            errorMessage.setValue("Search query cannot be empty");
+            clearSearch();
             return;
         }
 
         searchQuery.setValue(query);
+        String trimmed = query.trim();
+        String key = trimmed.toLowerCase(Locale.ROOT);
+
+        List<Place> recent = recentSearches.get(key);
+        if (recent != null) {
+            cancelActiveSearch();
+            searchResults.setValue(recent);
+            isLoading.setValue(false);
+            return;
+        }
+
+        pendingSearch = () -> {
+            pendingSearch = null;
+            runSearch(trimmed, key);
+        };
+        mainHandler.postDelayed(pendingSearch, SEARCH_DEBOUNCE_MS);
+    }
+
+    private void runSearch(String query, String key) {
+        cancelActiveSearch();
+        int generation = ++searchGeneration;
         isLoading.setValue(true);
 
-        LiveData<List<Place>> searchResultsLiveData =
-                placeRepository.searchPlaces(query.trim());
+        activeSearch = placeRepository.searchPlaces(query, new PlaceRepository.SearchCallback() {
+            @Override
+            public void onResults(List<Place> places) {
+                mainHandler.post(() -> {
+                    if (generation != searchGeneration) return;
+                    activeSearch = null;
+                    recentSearches.put(key, places);
+                    searchResults.setValue(places);
+                    isLoading.setValue(false);
+                });
+            }
 
-        searchResultsLiveData.observeForever(places -> {
-            searchResults.setValue(places);
-            isLoading.setValue(false);
+            @Override
+            public void onError(String message) {
+                mainHandler.post(() -> {
+                    if (generation != searchGeneration) return;
+                    activeSearch = null;
+                    errorMessage.setValue(message);
+                    isLoading.setValue(false);
+                });
+            }
         });
     }
 
+    private void cancelPendingSearch() {
+        if (pendingSearch != null) {
+            mainHandler.removeCallbacks(pendingSearch);
+            pendingSearch = null;
+        }
+    }
+
+    private void cancelActiveSearch() {
+        // Bumping the generation also drops results already queued on the main thread
+        searchGeneration++;
+        if (activeSearch != null) {
+            activeSearch.cancel();
+            activeSearch = null;
+            isLoading.setValue(false);
+        }
+    }
+
     /**
-     * Clears the current search results.
+     * Clears the current search results and stops any pending search.
      */
     public void clearSearch() {
+        cancelPendingSearch();
+        cancelActiveSearch();
         searchQuery.setValue(null);
         searchResults.setValue(null);
     }
@@ -258,6 +341,17 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
         fetchAllPlaces();
     }
 
+    /**
+     * Observes a repository request until the ViewModel is cleared, then detaches from it.
+     */
+    private <T> void observeRequest(RequestLiveData<T> request, Observer<T> observer) {
+        request.observeForever(observer);
+        requestReleases.add(() -> {
+            request.removeObserver(observer);
+            request.cancel();
+        });
+    }
+
     // ==================== TRAJECTORY OPTIMIZATION ====================
 
     /**
@@ -289,10 +383,10 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
         isLoading.setValue(true);
         MutableLiveData<List<Place>> trajectoryResult = new MutableLiveData<>();
 
-        LiveData<List<Place>> nearbyLiveData =
+        RequestLiveData<List<Place>> nearbyLiveData =
                 placeRepository.fetchNearbyPlaces(userLat, userLon, radiusKm);
 
-        nearbyLiveData.observeForever(places -> {
+        observeRequest(nearbyLiveData, places -> {
             if (places != null && !places.isEmpty()) {
                 // Limit to max places
                 List<Place> limitedPlaces = places.size() > maxPlaces
@@ -606,6 +700,16 @@ public class PlaceDetailsViewModel extends AndroidViewModel {
     protected void onCleared() {
         super.onCleared();
 
+        // Stop search work that would publish into a dead ViewModel
+        cancelPendingSearch();
+        cancelActiveSearch();
+
+        // Stop observing our requests and detach from those still on the network
+        for (Runnable release : requestReleases) {
+            release.run();
+        }
+        requestReleases.clear();
+
         // Remove observers from repository LiveData
         placeRepository.getIsLoading().removeObserver(loadingObserver);
         placeRepository.getErrorMessage().removeObserver(errorObserver);
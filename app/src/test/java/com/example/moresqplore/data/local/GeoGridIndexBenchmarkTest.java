@@ -0,0 +1,108 @@
+package com.example.moresqplore.data.local;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Times GeoGridIndex against a linear scan that keeps the best k in a bounded
+ * heap and sorts only the points inside the radius, as the index does.
+ * Wall-clock bounds are unreliable on shared CI runners and under coverage,
+ * so this only runs when the annotation is removed locally.
+ */
+@Ignore("Benchmark; remove to compare timings locally")
+public class GeoGridIndexBenchmarkTest {
+
+    private static final int QUERIES = 200;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void index_beatsLinearScan_10k() {
+        assertSpeedup(10_000, 2);
+    }
+
+    @Test
+    public void index_beatsLinearScan_100k() {
+        assertSpeedup(100_000, 10);
+    }
+
+    private void assertSpeedup(int size, double minSpeedup) {
+        Random random = new Random(42);
+        double[] lat = new double[size];
+        double[] lon = new double[size];
+        GeoGridIndex<Integer> index = new GeoGridIndex<>();
+        for (int i = 0; i < size; i++) {
+            lat[i] = 27.6 + random.nextDouble() * 8.3;
+            lon[i] = -13.2 + random.nextDouble() * 12.2;
+            index.put(String.valueOf(i), lat[i], lon[i], i);
+        }
+        double[][] queries = new double[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = new double[] {
+                    27.6 + random.nextDouble() * 8.3,
+                    -13.2 + random.nextDouble() * 12.2,
+                    1 + random.nextInt(20),
+                    1 + random.nextDouble() * 25};
+        }
+
+        // Best of several rounds; the first ones warm up the JIT
+        long indexNanos = Long.MAX_VALUE;
+        long linearNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (double[] query : queries) {
+                checksum += index.nearest(query[0], query[1], (int) query[2]).size();
+                checksum += index.withinRadius(query[0], query[1], query[3]).size();
+            }
+            indexNanos = Math.min(indexNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (double[] query : queries) {
+                checksum += linearNearest(lat, lon, query[0], query[1], (int) query[2]).size();
+                checksum += linearWithin(lat, lon, query[0], query[1], query[3]).size();
+            }
+            linearNanos = Math.min(linearNanos, System.nanoTime() - start);
+        }
+
+        assertTrue(checksum > 0);
+        assertTrue(String.format("%d POIs: index %d ns vs linear scan %d ns, expected %.0fx faster",
+                        size, indexNanos, linearNanos, minSpeedup),
+                indexNanos * minSpeedup <= linearNanos);
+    }
+
+    private static List<Double> linearNearest(double[] lat, double[] lon, double qLat, double qLon, int k) {
+        PriorityQueue<Double> best = new PriorityQueue<>(k, (a, b) -> Double.compare(b, a));
+        for (int i = 0; i < lat.length; i++) {
+            double distance = GeoGridIndex.distanceKm(qLat, qLon, lat[i], lon[i]);
+            if (best.size() < k) {
+                best.add(distance);
+            } else if (distance < best.peek()) {
+                best.poll();
+                best.add(distance);
+            }
+        }
+        List<Double> sorted = new ArrayList<>(best);
+        sorted.sort(null);
+        return sorted;
+    }
+
+    private static List<Double> linearWithin(double[] lat, double[] lon, double qLat, double qLon,
+                                             double radiusKm) {
+        List<Double> within = new ArrayList<>();
+        for (int i = 0; i < lat.length; i++) {
+            double distance = GeoGridIndex.distanceKm(qLat, qLon, lat[i], lon[i]);
+            if (distance <= radiusKm) {
+                within.add(distance);
+            }
+        }
+        within.sort(null);
+        return within;
+    }
+}
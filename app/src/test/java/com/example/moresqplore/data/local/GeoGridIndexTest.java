@@ -0,0 +1,88 @@
+package com.example.moresqplore.data.local;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks GeoGridIndex against a brute-force scan over 10k and 100k
+ * synthetic POIs spread over Morocco. Timings are left to
+ * {@link GeoGridIndexBenchmarkTest}.
+ */
+public class GeoGridIndexTest {
+
+    private static final int QUERIES = 200;
+
+    @Test
+    public void radiusAndNearest_match_linearScan_10k() {
+        checkAgainstLinearScan(10_000);
+    }
+
+    @Test
+    public void radiusAndNearest_match_linearScan_100k() {
+        checkAgainstLinearScan(100_000);
+    }
+
+    @Test
+    public void put_replacesExistingKey_andRemoveDropsIt() {
+        GeoGridIndex<String> index = new GeoGridIndex<>();
+        index.put("a", 31.63, -7.99, "Marrakech");
+        index.put("a", 34.03, -5.00, "Fes");
+        assertEquals(1, index.size());
+        assertEquals("Fes", index.nearest(34.0, -5.0, 1).get(0).getValue());
+
+        assertTrue(index.remove("a"));
+        assertEquals(0, index.size());
+        assertTrue(index.nearest(34.0, -5.0, 1).isEmpty());
+    }
+
+    private void checkAgainstLinearScan(int size) {
+        Random random = new Random(42);
+        double[] lat = new double[size];
+        double[] lon = new double[size];
+        GeoGridIndex<Integer> index = new GeoGridIndex<>();
+        for (int i = 0; i < size; i++) {
+            lat[i] = 27.6 + random.nextDouble() * 8.3;
+            lon[i] = -13.2 + random.nextDouble() * 12.2;
+            index.put(String.valueOf(i), lat[i], lon[i], i);
+        }
+
+        for (int q = 0; q < QUERIES; q++) {
+            double qLat = 27.6 + random.nextDouble() * 8.3;
+            double qLon = -13.2 + random.nextDouble() * 12.2;
+            int k = 1 + random.nextInt(20);
+            double radiusKm = 1 + random.nextDouble() * 25;
+
+            List<GeoGridIndex.Neighbor<Integer>> nearest = index.nearest(qLat, qLon, k);
+            List<GeoGridIndex.Neighbor<Integer>> within = index.withinRadius(qLat, qLon, radiusKm);
+
+            double[] distances = new double[size];
+            Set<Integer> withinIds = new HashSet<>();
+            for (int i = 0; i < size; i++) {
+                distances[i] = GeoGridIndex.distanceKm(qLat, qLon, lat[i], lon[i]);
+                if (distances[i] <= radiusKm) withinIds.add(i);
+            }
+            Arrays.sort(distances);
+
+            assertEquals(k, nearest.size());
+            for (int j = 0; j < k; j++) {
+                assertEquals(distances[j], nearest.get(j).getDistanceKm(), 1e-9);
+            }
+            Set<Integer> indexedIds = new HashSet<>();
+            for (int j = 0; j < within.size(); j++) {
+                indexedIds.add(within.get(j).getValue());
+                if (j > 0) {
+                    assertTrue(within.get(j - 1).getDistanceKm() <= within.get(j).getDistanceKm());
+                }
+            }
+            assertEquals(withinIds, indexedIds);
+            assertEquals(withinIds.size(), within.size());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.moresqplore.data.local;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PlaceSearchTest {
+
+    @Test
+    public void fold_lowercasesAndStripsDiacritics() {
+        assertEquals("meknes", PlaceSearch.fold("Meknès"));
+        assertEquals("ait benhaddou", PlaceSearch.fold("Aït Benhaddou"));
+        assertEquals("", PlaceSearch.fold(null));
+    }
+
+    @Test
+    public void toMatchQuery_makesEveryTermAPrefix() {
+        assertEquals("fes* med*", PlaceSearch.toMatchQuery("Fès, méd"));
+        assertEquals("jardin* majorelle*", PlaceSearch.toMatchQuery("  Jardin   Majorelle "));
+    }
+
+    @Test
+    public void toMatchQuery_dropsFtsSyntax() {
+        // Quotes, operators and column filters must not reach MATCH
+        assertEquals("name* bahia* or* x*", PlaceSearch.toMatchQuery("name:\"bahia\" OR -x*"));
+    }
+
+    @Test
+    public void toMatchQuery_returnsNullWithoutTerms() {
+        assertNull(PlaceSearch.toMatchQuery(""));
+        assertNull(PlaceSearch.toMatchQuery("  *-\"  "));
+        assertNull(PlaceSearch.toMatchQuery(null));
+    }
+
+    @Test
+    public void rank_prefersNameOverCityOverCategory() {
+        PlaceEntity byCategory = place("1", "Dar Si Said", "Marrakech", "fes-style museum", 5.0);
+        PlaceEntity byCity = place("2", "Bou Inania", "Fes", "madrasa", 4.0);
+        PlaceEntity byName = place("3", "Bab Fes", "Rabat", "gate", 3.0);
+
+        List<PlaceEntity> ranked = PlaceSearch.rank(Arrays.asList(byCategory, byCity, byName), "fes");
+
+        assertEquals(Arrays.asList(byName, byCity, byCategory), ranked);
+    }
+
+    @Test
+    public void rank_givesBonusWhenFirstTermStartsTheName() {
+        PlaceEntity inside = place("1", "Jardin Majorelle", "Marrakech", "garden", 5.0);
+        PlaceEntity starts = place("2", "Majorelle Blue Shop", "Marrakech", "shop", 1.0);
+
+        List<PlaceEntity> ranked = PlaceSearch.rank(Arrays.asList(inside, starts), "majorelle");
+
+        assertSame(starts, ranked.get(0));
+    }
+
+    @Test
+    public void rank_breaksTiesByRatingWithMissingRatingsLast() {
+        PlaceEntity unrated = place("1", "Kasbah Museum", "Tanger", "museum", null);
+        PlaceEntity low = place("2", "Kasbah Cafe", "Tanger", "cafe", 3.5);
+        PlaceEntity high = place("3", "Kasbah Gardens", "Tanger", "garden", 4.8);
+
+        List<PlaceEntity> ranked = PlaceSearch.rank(Arrays.asList(unrated, low, high), "kasbah");
+
+        assertEquals(Arrays.asList(high, low, unrated), ranked);
+    }
+
+    @Test
+    public void rank_matchesTagsAndFoldedText() {
+        PlaceEntity tagged = place("1", "Le Jardin Secret", "Marrakech", "garden", 4.0);
+        tagged.setTags(Collections.singletonList("Médina"));
+        PlaceEntity other = place("2", "Menara Gardens", "Marrakech", "garden", 4.5);
+
+        List<PlaceEntity> ranked = PlaceSearch.rank(Arrays.asList(other, tagged), "MEDINA");
+
+        assertSame(tagged, ranked.get(0));
+    }
+
+    private static PlaceEntity place(String id, String name, String city, String category, Double rating) {
+        PlaceEntity place = new PlaceEntity();
+        place.setId(id);
+        place.setName(name);
+        place.setCity(city);
+        place.setCategory(category);
+        place.setRating(rating);
+        return place;
+    }
+}
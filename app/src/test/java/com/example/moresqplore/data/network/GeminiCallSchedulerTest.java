@@ -0,0 +1,506 @@
+package com.example.moresqplore.data.network;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class GeminiCallSchedulerTest {
+
+    // Whole seconds, so HTTP dates round-trip exactly
+    private static final long WALL_CLOCK_START = 1_760_000_000_000L;
+
+    private ManualScheduler time;
+    private GeminiCallScheduler scheduler;
+    private final List<FakeCall> started = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        time = new ManualScheduler();
+        scheduler = new GeminiCallScheduler(time, time);
+    }
+
+    @Test
+    public void burstGoesOutAtOnce_thenTheSustainedRate() {
+        scheduler.configure(60, 2);
+        for (int i = 0; i < 4; i++) {
+            enqueue("r" + i, GeminiCallScheduler.Priority.INTERACTIVE);
+        }
+        time.runPending();
+        assertEquals(2, started.size());
+
+        time.advance(999);
+        assertEquals(2, started.size());
+        time.advance(1);
+        assertEquals(3, started.size());
+        time.advance(1000);
+        assertEquals(4, started.size());
+    }
+
+    @Test
+    public void idleBucket_refillsOnlyUpToTheBurst() {
+        scheduler.configure(60, 2);
+        time.runPending();
+        time.advance(60_000);
+
+        for (int i = 0; i < 4; i++) {
+            enqueue("r" + i, GeminiCallScheduler.Priority.INTERACTIVE);
+        }
+        time.runPending();
+
+        assertEquals(2, started.size());
+    }
+
+    @Test
+    public void interactiveRequests_jumpAheadOfBackgroundOnes() {
+        scheduler.configure(60, 1);
+        enqueue("background-1", GeminiCallScheduler.Priority.BACKGROUND);
+        enqueue("interactive-1", GeminiCallScheduler.Priority.INTERACTIVE);
+        enqueue("background-2", GeminiCallScheduler.Priority.BACKGROUND);
+        enqueue("interactive-2", GeminiCallScheduler.Priority.INTERACTIVE);
+
+        time.advance(3000);
+
+        assertEquals(Arrays.asList("background-1", "interactive-1", "interactive-2", "background-2"), labels());
+    }
+
+    @Test
+    public void rateLimited_retriesAfterRetryAfterSecondsAndPausesTheQueue() {
+        scheduler.configure(600, 10);
+        RecordingCallback first = enqueue("first", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.runPending();
+
+        started.get(0).respond(error(429, "{}", "Retry-After", "5"));
+        RecordingCallback second = enqueue("second", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.runPending();
+
+        // Neither the retry nor the newcomer goes out while the queue is paused
+        assertEquals(1, started.size());
+        time.advance(4999);
+        assertEquals(1, started.size());
+
+        time.advance(1);
+        assertEquals(Arrays.asList("first", "first"), labels());
+        // After the pause the rest follow at the sustained rate (10/s), not as a burst
+        time.advance(99);
+        assertEquals(2, started.size());
+        time.advance(1);
+        assertEquals(Arrays.asList("first", "first", "second"), labels());
+
+        started.get(1).respond(Response.success("answer"));
+        assertEquals("answer", first.body);
+        assertSame(started.get(1), first.lastCall);
+        assertEquals(0, second.calls);
+    }
+
+    @Test
+    public void serverError_retriesAfterRetryAfterHttpDateWithoutPausing() {
+        scheduler.configure(600, 10);
+        enqueue("first", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.runPending();
+
+        started.get(0).respond(error(503, "{}", "Retry-After", httpDate(WALL_CLOCK_START + 8000)));
+        enqueue("second", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.runPending();
+
+        // A 503 only delays the failed request
+        assertEquals(Arrays.asList("first", "second"), labels());
+        time.advance(7999);
+        assertEquals(2, started.size());
+        time.advance(1);
+        assertEquals(Arrays.asList("first", "second", "first"), labels());
+    }
+
+    @Test
+    public void rateLimited_fallsBackToTheRetryDelayInTheErrorBody() {
+        scheduler.configure(600, 10);
+        enqueue("first", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.runPending();
+
+        started.get(0).respond(error(429, "{\"error\": {\"code\": 429, \"details\": [{\"@type\": "
+                + "\"type.googleapis.com/google.rpc.RetryInfo\", \"retryDelay\": \"12.5s\"}]}}"));
+
+        time.advance(12_499);
+        assertEquals(1, started.size());
+        time.advance(1);
+        assertEquals(2, started.size());
+    }
+
+    @Test
+    public void rateLimitTooLongToWait_reachesTheCallerAndStillPausesTheQueue() {
+        scheduler.configure(600, 10);
+        RecordingCallback first = enqueue("first", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.runPending();
+
+        started.get(0).respond(error(429, "{\"error\": \"quota\"}", "Retry-After", "120"));
+        time.runPending();
+
+        assertEquals(1, first.calls);
+        assertEquals(429, first.code);
+        // The body was only peeked, so the caller can still read it
+        assertEquals("{\"error\": \"quota\"}", first.errorBody);
+
+        enqueue("second", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.advance(119_999);
+        assertEquals(1, started.size());
+        time.advance(1);
+        assertEquals(Arrays.asList("first", "second"), labels());
+    }
+
+    @Test
+    public void serverErrors_reachTheCallerOnceTheAttemptsAreUsedUp() {
+        scheduler.configure(600, 10);
+        RecordingCallback callback = enqueue("first", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.runPending();
+
+        for (int attempt = 1; attempt < 4; attempt++) {
+            started.get(attempt - 1).respond(error(500, "{}"));
+            assertEquals(0, callback.calls);
+            // Jittered exponential backoff: between half and all of 1 s, 2 s, 4 s
+            long ceiling = 1000L << (attempt - 1);
+            time.advance(ceiling / 2 - 1);
+            assertEquals(attempt, started.size());
+            time.advance(ceiling / 2 + 1);
+            assertEquals(attempt + 1, started.size());
+        }
+        started.get(3).respond(error(500, "{}"));
+
+        assertEquals(1, callback.calls);
+        assertEquals(500, callback.code);
+    }
+
+    @Test
+    public void networkFailures_areRetriedOtherFailuresAreNot() {
+        scheduler.configure(600, 10);
+        RecordingCallback callback = enqueue("first", GeminiCallScheduler.Priority.INTERACTIVE);
+        time.runPending();
+
+        started.get(0).fail(new IOException("connection reset"));
+        time.advance(1000);
+        assertEquals(2, started.size());
+        assertEquals(0, callback.calls);
+
+        IllegalStateException bug = new IllegalStateException("converter");
+        started.get(1).fail(bug);
+        assertSame(bug, callback.failure);
+    }
+
+    @Test
+    public void cancel_dropsAQueuedRequest() {
+        scheduler.configure(60, 1);
+        enqueue("first", GeminiCallScheduler.Priority.INTERACTIVE);
+        RecordingCallback second = new RecordingCallback();
+        GeminiCallScheduler.Ticket ticket = scheduler.enqueue(new FakeCall("second"),
+                GeminiCallScheduler.Priority.INTERACTIVE, second);
+        time.runPending();
+
+        ticket.cancel();
+        time.advance(5000);
+
+        assertEquals(Arrays.asList("first"), labels());
+        assertEquals(1, second.calls);
+        assertTrue(second.failure instanceof IOException);
+        assertTrue(second.lastCall.isCanceled());
+    }
+
+    private RecordingCallback enqueue(String label, GeminiCallScheduler.Priority priority) {
+        RecordingCallback callback = new RecordingCallback();
+        scheduler.enqueue(new FakeCall(label), priority, callback);
+        return callback;
+    }
+
+    private List<String> labels() {
+        List<String> labels = new ArrayList<>();
+        for (FakeCall call : started) {
+            labels.add(call.label);
+        }
+        return labels;
+    }
+
+    private static Response<String> error(int code, String body, String... headers) {
+        okhttp3.Response raw = new okhttp3.Response.Builder()
+                .request(new Request.Builder().url("https://generativelanguage.googleapis.com/").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("HTTP " + code)
+                .headers(Headers.of(headers))
+                .build();
+        return Response.error(ResponseBody.create(body, MediaType.get("application/json")), raw);
+    }
+
+    private static String httpDate(long millis) {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(new Date(millis));
+    }
+
+    private static final class RecordingCallback implements Callback<String> {
+        int calls;
+        int code;
+        String body;
+        String errorBody;
+        Throwable failure;
+        Call<String> lastCall;
+
+        @Override
+        public void onResponse(Call<String> call, Response<String> response) {
+            calls++;
+            lastCall = call;
+            code = response.code();
+            body = response.body();
+            if (response.errorBody() != null) {
+                try {
+                    errorBody = response.errorBody().string();
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+
+        @Override
+        public void onFailure(Call<String> call, Throwable t) {
+            calls++;
+            lastCall = call;
+            failure = t;
+        }
+    }
+
+    private final class FakeCall implements Call<String> {
+        final String label;
+        private Callback<String> callback;
+        private boolean canceled;
+
+        FakeCall(String label) {
+            this.label = label;
+        }
+
+        void respond(Response<String> response) {
+            callback.onResponse(this, response);
+        }
+
+        void fail(Throwable t) {
+            callback.onFailure(this, t);
+        }
+
+        @Override
+        public void enqueue(Callback<String> callback) {
+            assertNull("call started twice", this.callback);
+            this.callback = callback;
+            started.add(this);
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return callback != null;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<String> clone() {
+            return new FakeCall(label);
+        }
+
+        @Override
+        public Response<String> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Request request() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Timeout timeout() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Single-threaded executor on virtual time: tasks run when the test advances the clock.
+     */
+    private static final class ManualScheduler extends AbstractExecutorService
+            implements ScheduledExecutorService, GeminiCallScheduler.Clock {
+
+        private final List<Task> tasks = new ArrayList<>();
+        private long now;
+        private long submitted;
+
+        @Override
+        public long elapsedMs() {
+            return now;
+        }
+
+        @Override
+        public long currentTimeMs() {
+            return WALL_CLOCK_START + now;
+        }
+
+        void runPending() {
+            runUntil(now);
+        }
+
+        void advance(long ms) {
+            runUntil(now + ms);
+        }
+
+        private void runUntil(long target) {
+            while (true) {
+                Task next = null;
+                for (Task task : tasks) {
+                    if (task.at <= target && (next == null || task.compareTo(next) < 0)) {
+                        next = task;
+                    }
+                }
+                if (next == null) {
+                    now = target;
+                    return;
+                }
+                tasks.remove(next);
+                now = Math.max(now, next.at);
+                next.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            schedule(command, 0, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            Task task = new Task(command, now + unit.toMillis(delay), submitted++);
+            tasks.add(task);
+            return task;
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+
+        private final class Task implements ScheduledFuture<Object> {
+            final Runnable command;
+            final long at;
+            final long order;
+            boolean done;
+            boolean cancelled;
+
+            Task(Runnable command, long at, long order) {
+                this.command = command;
+                this.at = at;
+                this.order = order;
+            }
+
+            void run() {
+                done = true;
+                command.run();
+            }
+
+            @Override
+            public long getDelay(TimeUnit unit) {
+                return unit.convert(at - now, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public int compareTo(Delayed other) {
+                Task task = (Task) other;
+                return at != task.at ? Long.compare(at, task.at) : Long.compare(order, task.order);
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                cancelled = tasks.remove(this);
+                return cancelled;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+
+            @Override
+            public boolean isDone() {
+                return done || cancelled;
+            }
+
+            @Override
+            public Object get() {
+                return null;
+            }
+
+            @Override
+            public Object get(long timeout, TimeUnit unit) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.moresqplore.data.network;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GeminiStreamReaderTest {
+
+    private final GeminiStreamReader reader = new GeminiStreamReader(new Gson());
+    private final List<String> deltas = new ArrayList<>();
+
+    @Test
+    public void read_deliversEachEventInOrder() throws IOException {
+        String body = event(chunk("Marhaba", null)) + event(chunk(", welcome", null)) + event(chunk(" to Fes.", "STOP"));
+
+        String finishReason = read(body);
+
+        assertEquals(Arrays.asList("Marhaba", ", welcome", " to Fes."), deltas);
+        assertEquals("STOP", finishReason);
+    }
+
+    @Test
+    public void read_joinsMultiLineDataFields() throws IOException {
+        // One JSON document split over several data: lines of the same event
+        String body = "data: {\"candidates\": [{\n"
+                + "data: \"content\": {\"parts\": [{\"text\": \"Hello\"}]},\n"
+                + "data: \"finishReason\": \"STOP\"}]}\n"
+                + "\n";
+
+        assertEquals("STOP", read(body));
+        assertEquals(Collections.singletonList("Hello"), deltas);
+    }
+
+    @Test
+    public void read_acceptsDataWithAndWithoutTheSpace() throws IOException {
+        String body = "data: " + chunk("one", null) + "\n\n"
+                + "data:" + chunk("two", null) + "\n\n";
+
+        read(body);
+
+        assertEquals(Arrays.asList("one", "two"), deltas);
+    }
+
+    @Test
+    public void read_ignoresCommentsAndOtherFields() throws IOException {
+        String body = ": keep-alive\n"
+                + "event: message\n"
+                + "id: 7\n"
+                + "data: " + chunk("text", null) + "\n"
+                + ": trailing comment\n"
+                + "\n"
+                + ": ping\n"
+                + "\n";
+
+        read(body);
+
+        assertEquals(Collections.singletonList("text"), deltas);
+    }
+
+    @Test
+    public void read_dispatchesAFinalEventWithoutTrailingBlankLine() throws IOException {
+        String body = event(chunk("first", null)) + "data: " + chunk("last", "MAX_TOKENS");
+
+        assertEquals("MAX_TOKENS", read(body));
+        assertEquals(Arrays.asList("first", "last"), deltas);
+    }
+
+    @Test
+    public void read_keepsTheLastFinishReasonSeen() throws IOException {
+        String body = event(chunk("done", "STOP")) + event("{\"candidates\": []}");
+
+        assertEquals("STOP", read(body));
+    }
+
+    @Test
+    public void read_errorEventThrowsStreamException() {
+        String body = event(chunk("partial", null))
+                + event("{\"error\": {\"code\": 429, \"message\": \"Resource exhausted\", "
+                + "\"status\": \"RESOURCE_EXHAUSTED\"}}")
+                + event(chunk("never", null));
+
+        GeminiStreamReader.StreamException e =
+                assertThrows(GeminiStreamReader.StreamException.class, () -> read(body));
+
+        assertEquals("Resource exhausted", e.getMessage());
+        assertEquals(Integer.valueOf(429), e.getApiError().getCode());
+        assertEquals("RESOURCE_EXHAUSTED", e.getApiError().getStatus());
+        // Text before the error was already delivered, nothing after it
+        assertEquals(Collections.singletonList("partial"), deltas);
+    }
+
+    @Test
+    public void read_malformedEventThrowsIOException() {
+        IOException e = assertThrows(IOException.class, () -> read(event("{\"candidates\": [")));
+
+        assertFalse(e instanceof GeminiStreamReader.StreamException);
+    }
+
+    @Test
+    public void read_emptyBodyHasNoFinishReason() throws IOException {
+        assertNull(read(""));
+        assertTrue(deltas.isEmpty());
+    }
+
+    private String read(String body) throws IOException {
+        return reader.read(new StringReader(body), deltas::add);
+    }
+
+    private static String event(String json) {
+        return "data: " + json + "\n\n";
+    }
+
+    private static String chunk(String text, String finishReason) {
+        return "{\"candidates\": [{\"content\": {\"role\": \"model\", \"parts\": [{\"text\": \"" + text + "\"}]}"
+                + (finishReason != null ? ", \"finishReason\": \"" + finishReason + "\"" : "")
+                + "}]}";
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.moresqplore.data.network;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final List<FakeCall> started = new ArrayList<>();
+
+    @Test
+    public void sameKey_sharesOneCall() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+
+        coalescer.enqueue("places:city:Fes", this::newCall, first);
+        coalescer.enqueue("places:city:Fes", this::newCall, second);
+
+        assertEquals(1, started.size());
+        assertEquals(1, coalescer.inFlightCount());
+
+        started.get(0).respond("rows");
+
+        assertEquals("rows", first.body);
+        assertEquals("rows", second.body);
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void differentKeys_getTheirOwnCalls() {
+        coalescer.enqueue("places:city:Fes", this::newCall, new RecordingCallback());
+        coalescer.enqueue("places:city:Rabat", this::newCall, new RecordingCallback());
+
+        assertEquals(2, started.size());
+        assertEquals(2, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void failure_reachesEverySubscriber() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        coalescer.enqueue("place:1", this::newCall, first);
+        coalescer.enqueue("place:1", this::newCall, second);
+
+        IOException error = new IOException("offline");
+        started.get(0).fail(error);
+
+        assertSame(error, first.failure);
+        assertSame(error, second.failure);
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void completedKey_startsAFreshCall() {
+        coalescer.enqueue("place:1", this::newCall, new RecordingCallback());
+        started.get(0).respond("old");
+
+        RecordingCallback late = new RecordingCallback();
+        coalescer.enqueue("place:1", this::newCall, late);
+
+        assertEquals(2, started.size());
+        assertNull(late.body);
+    }
+
+    @Test
+    public void cancellingOneSubscriber_keepsTheCallForTheOthers() {
+        RecordingCallback leaving = new RecordingCallback();
+        RecordingCallback staying = new RecordingCallback();
+        RequestCoalescer.Subscription subscription = coalescer.enqueue("place:1", this::newCall, leaving);
+        coalescer.enqueue("place:1", this::newCall, staying);
+
+        subscription.cancel();
+
+        assertFalse(started.get(0).isCanceled());
+        started.get(0).respond("rows");
+        assertEquals(0, leaving.calls);
+        assertEquals("rows", staying.body);
+    }
+
+    @Test
+    public void cancellingTheLastSubscriber_cancelsTheCall() {
+        RequestCoalescer.Subscription first = coalescer.enqueue("place:1", this::newCall, new RecordingCallback());
+        RequestCoalescer.Subscription second = coalescer.enqueue("place:1", this::newCall, new RecordingCallback());
+
+        first.cancel();
+        second.cancel();
+
+        assertTrue(started.get(0).isCanceled());
+        assertEquals(0, coalescer.inFlightCount());
+
+        // The cancelled call is no longer joinable
+        coalescer.enqueue("place:1", this::newCall, new RecordingCallback());
+        assertEquals(2, started.size());
+    }
+
+    @Test
+    public void cancelAfterCompletion_isANoOp() {
+        RecordingCallback callback = new RecordingCallback();
+        RequestCoalescer.Subscription subscription = coalescer.enqueue("place:1", this::newCall, callback);
+        started.get(0).respond("rows");
+
+        subscription.cancel();
+        subscription.cancel();
+
+        assertFalse(started.get(0).isCanceled());
+        assertEquals(1, callback.calls);
+    }
+
+    private Call<String> newCall() {
+        FakeCall call = new FakeCall();
+        started.add(call);
+        return call;
+    }
+
+    private static final class RecordingCallback implements Callback<String> {
+        int calls;
+        String body;
+        Throwable failure;
+
+        @Override
+        public void onResponse(Call<String> call, Response<String> response) {
+            calls++;
+            body = response.body();
+        }
+
+        @Override
+        public void onFailure(Call<String> call, Throwable t) {
+            calls++;
+            failure = t;
+        }
+    }
+
+    private static final class FakeCall implements Call<String> {
+        private Callback<String> callback;
+        private boolean canceled;
+
+        void respond(String body) {
+            callback.onResponse(this, Response.success(body));
+        }
+
+        void fail(Throwable t) {
+            callback.onFailure(this, t);
+        }
+
+        @Override
+        public void enqueue(Callback<String> callback) {
+            assertNull("enqueued twice", this.callback);
+            this.callback = callback;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return callback != null;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Response<String> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Call<String> clone() {
+            return new FakeCall();
+        }
+
+        @Override
+        public Request request() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Timeout timeout() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
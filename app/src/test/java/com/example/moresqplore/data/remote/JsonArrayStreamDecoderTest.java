@@ -0,0 +1,133 @@
+package com.example.moresqplore.data.remote;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JsonArrayStreamDecoderTest {
+
+    static final class Item {
+        String id;
+    }
+
+    private final JsonArrayStreamDecoder<Item> decoder = new JsonArrayStreamDecoder<>(new Gson(), Item.class, 2);
+    private final List<List<String>> chunks = new ArrayList<>();
+
+    @Test
+    public void decode_deliversFullChunksThenTheRemainder() throws IOException {
+        int total = decoder.decode(new StringReader(items("a", "b", "c", "d", "e")), this::collect);
+
+        assertEquals(5, total);
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c", "d"),
+                Collections.singletonList("e")), chunks);
+    }
+
+    @Test
+    public void decode_sendsNoEmptyChunkWhenTheArrayFillsTheLastOne() throws IOException {
+        int total = decoder.decode(new StringReader(items("a", "b", "c", "d")), this::collect);
+
+        assertEquals(4, total);
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c", "d")), chunks);
+    }
+
+    @Test
+    public void decode_handlesElementsSplitAcrossReads() throws IOException {
+        // The network hands over the body in arbitrary pieces, here one character per read
+        int total = decoder.decode(new TrickleReader(items("alpha", "beta", "gamma")), this::collect);
+
+        assertEquals(3, total);
+        assertEquals(Arrays.asList(Arrays.asList("alpha", "beta"), Collections.singletonList("gamma")), chunks);
+    }
+
+    @Test
+    public void decode_emptyArrayDeliversNothing() throws IOException {
+        assertEquals(0, decoder.decode(new StringReader("[]"), this::collect));
+        assertEquals(0, decoder.decode(new StringReader("null"), this::collect));
+        assertTrue(chunks.isEmpty());
+    }
+
+    @Test
+    public void decode_skipsNullElements() throws IOException {
+        int total = decoder.decode(new StringReader("[{\"id\":\"a\"},null,{\"id\":\"b\"}]"), this::collect);
+
+        assertEquals(2, total);
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b")), chunks);
+    }
+
+    @Test
+    public void decode_malformedElementFailsAfterEarlierChunks() throws IOException {
+        String body = "[{\"id\":\"a\"},{\"id\":\"b\"},\"oops\",{\"id\":\"c\"}]";
+
+        assertThrows(JsonSyntaxException.class, () -> decoder.decode(new StringReader(body), this::collect));
+        // Rows before the bad element were already handed over (and stored) by then
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b")), chunks);
+    }
+
+    @Test
+    public void decode_closesTheBody() throws IOException {
+        TrickleReader body = new TrickleReader(items("a"));
+
+        decoder.decode(body, this::collect);
+
+        assertTrue(body.closed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsNonPositiveChunkSize() {
+        new JsonArrayStreamDecoder<>(new Gson(), Item.class, 0);
+    }
+
+    private void collect(List<Item> chunk) {
+        List<String> ids = new ArrayList<>();
+        for (Item item : chunk) {
+            ids.add(item.id);
+        }
+        chunks.add(ids);
+    }
+
+    private static String items(String... ids) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < ids.length; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":\"").append(ids[i]).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static final class TrickleReader extends Reader {
+        private final String text;
+        private int position;
+        boolean closed;
+
+        TrickleReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
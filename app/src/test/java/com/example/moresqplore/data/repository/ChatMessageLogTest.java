@@ -0,0 +1,241 @@
+package com.example.moresqplore.data.repository;
+
+import com.example.moresqplore.data.model.ChatMessage;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ChatMessageLogTest {
+
+    private static final int THREADS = 8;
+    private static final int APPENDS_PER_THREAD = 2000;
+
+    @Test
+    public void append_keepsOrderAndNumbersEveryChange() {
+        ChatMessageLog log = new ChatMessageLog(10);
+
+        ChatMessageLog.Snapshot first = log.append(message("a"));
+        ChatMessageLog.Snapshot second = log.append(message("b"));
+
+        assertEquals(1, first.sequence);
+        assertEquals(2, second.sequence);
+        assertEquals(Arrays.asList("a", "b"), contents(second));
+        assertEquals("b", second.last().getContent());
+        // Earlier snapshots never change
+        assertEquals(Collections.singletonList("a"), contents(first));
+    }
+
+    @Test
+    public void snapshot_neverShowsMoreThanCapacity() {
+        ChatMessageLog log = new ChatMessageLog(3);
+
+        for (int i = 1; i <= 20; i++) {
+            ChatMessageLog.Snapshot snapshot = log.append(message(String.valueOf(i)));
+            assertEquals(Math.min(i, 3), snapshot.size());
+            assertEquals(String.valueOf(i), snapshot.last().getContent());
+        }
+        assertEquals(Arrays.asList("18", "19", "20"), contents(log.snapshot()));
+    }
+
+    @Test
+    public void append_pastTwiceTheCapacityTrimsOlderMessages() {
+        ChatMessageLog log = new ChatMessageLog(3);
+        List<ChatMessage> messages = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            messages.add(message(String.valueOf(i)));
+            log.append(messages.get(i - 1));
+        }
+
+        // The chain reached 6 nodes before the 7th append and was cut back to the newest ones
+        assertEquals(Arrays.asList("5", "6", "7"), contents(log.snapshot()));
+        assertEquals(7, log.snapshot().sequence);
+        assertNull(log.replace(messages.get(3).withContent("late")));
+        assertNull(log.remove(messages.get(0).getId()));
+    }
+
+    @Test
+    public void replace_andRemoveOnlyTouchTheirMessage() {
+        ChatMessageLog log = new ChatMessageLog(10);
+        ChatMessage a = message("a");
+        ChatMessage b = message("b");
+        ChatMessage c = message("c");
+        log.append(a);
+        log.append(b);
+        log.append(c);
+
+        ChatMessageLog.Snapshot replaced = log.replace(b.withContent("b2"));
+        ChatMessageLog.Snapshot removed = log.remove(a.getId());
+
+        assertEquals(Arrays.asList("a", "b2", "c"), contents(replaced));
+        assertEquals(Arrays.asList("b2", "c"), contents(removed));
+        assertEquals(5, removed.sequence);
+        assertNull(log.remove("unknown"));
+    }
+
+    @Test
+    public void concurrentAppends_loseNothingAndNumberEveryChangeOnce() throws Exception {
+        ChatMessageLog log = new ChatMessageLog(THREADS * APPENDS_PER_THREAD);
+        long[][] sequences = new long[THREADS][APPENDS_PER_THREAD];
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < APPENDS_PER_THREAD; i++) {
+                sequences[thread][i] = log.append(message(thread + ":" + i)).sequence;
+            }
+        });
+
+        ChatMessageLog.Snapshot end = log.snapshot();
+        assertEquals(THREADS * APPENDS_PER_THREAD, end.size());
+        assertEquals(THREADS * APPENDS_PER_THREAD, end.sequence);
+
+        Set<Long> seen = new HashSet<>();
+        int[] nextPerThread = new int[THREADS];
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int i = 0; i < APPENDS_PER_THREAD; i++) {
+                assertTrue("sequence reused", seen.add(sequences[thread][i]));
+                if (i > 0) {
+                    assertTrue(sequences[thread][i] > sequences[thread][i - 1]);
+                }
+            }
+        }
+        // Each thread's messages appear once, in the order it appended them
+        for (ChatMessage message : end) {
+            String[] parts = message.getContent().split(":");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(nextPerThread[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    public void replaceAndRemove_racingWithAppend() throws Exception {
+        int targets = 200;
+        int appends = 2000;
+        ChatMessageLog log = new ChatMessageLog(targets + appends);
+        List<ChatMessage> existing = new ArrayList<>();
+        for (int i = 0; i < targets; i++) {
+            existing.add(message("t" + i));
+            log.append(existing.get(i));
+        }
+        AtomicInteger missed = new AtomicInteger();
+
+        runConcurrently(2, thread -> {
+            if (thread == 0) {
+                for (int i = 0; i < appends; i++) {
+                    log.append(message("n" + i));
+                }
+            } else {
+                for (int i = 0; i < targets; i++) {
+                    ChatMessage target = existing.get(i);
+                    ChatMessageLog.Snapshot result = i % 2 == 0
+                            ? log.replace(target.withContent(target.getContent() + "'"))
+                            : log.remove(target.getId());
+                    if (result == null) {
+                        missed.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        assertEquals(0, missed.get());
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < targets; i += 2) {
+            expected.add("t" + i + "'");
+        }
+        for (int i = 0; i < appends; i++) {
+            expected.add("n" + i);
+        }
+        assertEquals(expected, contents(log.snapshot()));
+        assertEquals(targets + appends + targets, log.snapshot().sequence);
+    }
+
+    @Test
+    public void resetIfUnchanged_losesToAConcurrentAppend() {
+        ChatMessageLog log = new ChatMessageLog(10);
+        log.append(message("a"));
+        ChatMessageLog.Snapshot taken = log.snapshot();
+
+        log.append(message("b"));
+
+        assertNull(log.resetIfUnchanged(taken, Collections.singletonList(message("restored"))));
+        assertEquals(Arrays.asList("a", "b"), contents(log.snapshot()));
+    }
+
+    @Test
+    public void resetIfUnchanged_winsOnlyOnceAmongRacers() throws Exception {
+        ChatMessageLog log = new ChatMessageLog(10);
+        ChatMessageLog.Snapshot taken = log.snapshot();
+        AtomicInteger wins = new AtomicInteger();
+
+        runConcurrently(THREADS, thread -> {
+            if (log.resetIfUnchanged(taken, Collections.singletonList(message("r" + thread))) != null) {
+                wins.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, wins.get());
+        assertEquals(1, log.snapshot().size());
+        assertEquals(1, log.snapshot().sequence);
+    }
+
+    @Test
+    public void reset_keepsOnlyTheNewestCapacityMessages() {
+        ChatMessageLog log = new ChatMessageLog(2);
+        log.append(message("old"));
+
+        ChatMessageLog.Snapshot snapshot = log.reset(Arrays.asList(message("a"), message("b"), message("c")));
+
+        assertEquals(Arrays.asList("b", "c"), contents(snapshot));
+        assertEquals(2, snapshot.sequence);
+    }
+
+    private interface Work {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(int threads, Work work) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> running = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    work.run(thread);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            worker.start();
+            running.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : running) {
+            worker.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.get(0));
+        }
+    }
+
+    private static ChatMessage message(String content) {
+        return ChatMessage.userMessage(content);
+    }
+
+    private static List<String> contents(List<ChatMessage> messages) {
+        List<String> result = new ArrayList<>();
+        for (ChatMessage message : messages) {
+            result.add(message.getContent());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.moresqplore.data.repository;
+
+import com.example.moresqplore.data.model.ChatMessage;
+import com.example.moresqplore.data.network.GeminiModels;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GeminiContextWindowTest {
+
+    // 40 ASCII characters: 10 tokens of text plus 4 of turn overhead
+    private static final String TURN_TEXT = "Which riad near the Bab Boujloud gate?..";
+    private static final int TURN_TOKENS = 14;
+
+    @Test
+    public void estimateTokens_countsNonAsciiTextAsDenser() {
+        assertEquals(4, GeminiContextWindow.estimateTokens(null));
+        assertEquals(4, GeminiContextWindow.estimateTokens(""));
+        assertEquals(5, GeminiContextWindow.estimateTokens("abcd"));
+        assertEquals(6, GeminiContextWindow.estimateTokens("abcde"));
+        assertEquals(TURN_TOKENS, GeminiContextWindow.estimateTokens(TURN_TEXT));
+        // Five Arabic letters at two characters per token
+        assertEquals(7, GeminiContextWindow.estimateTokens("مرحبا"));
+    }
+
+    @Test
+    public void build_sendsAShortConversationWhole() {
+        List<ChatMessage> history = conversation(5);
+
+        GeminiContextWindow.Window window = new GeminiContextWindow(1000).build(history, null, 0);
+
+        assertEquals(0, window.firstTurn);
+        assertEquals(5 * TURN_TOKENS, window.estimatedTokens);
+        assertEquals(Arrays.asList("user", "model", "user", "model", "user"), roles(window));
+    }
+
+    @Test
+    public void build_staysWithinTheBudget() {
+        List<ChatMessage> history = conversation(11);
+
+        for (int budget = TURN_TOKENS; budget <= 11 * TURN_TOKENS; budget++) {
+            GeminiContextWindow.Window window = new GeminiContextWindow(budget).build(history, null, 0);
+
+            assertTrue("budget " + budget, window.estimatedTokens <= budget);
+            assertEquals(sentTokens(window), window.estimatedTokens);
+            // Greedy: the turn before the window would not have fit (or was a model turn dropped)
+            if (window.firstTurn > 0) {
+                assertTrue("budget " + budget, window.estimatedTokens + 2 * TURN_TOKENS > budget);
+            }
+        }
+    }
+
+    @Test
+    public void build_takesTheNewestTurnsThatFit() {
+        List<ChatMessage> history = conversation(11);
+
+        // Three turns fit, a fourth would not
+        GeminiContextWindow.Window window = new GeminiContextWindow(3 * TURN_TOKENS + 5).build(history, null, 0);
+
+        assertEquals(8, window.firstTurn);
+        assertEquals(3 * TURN_TOKENS, window.estimatedTokens);
+        assertEquals(history.get(10).getContent(), text(window.contents.get(2)));
+    }
+
+    @Test
+    public void build_alwaysSendsTheNewestTurn() {
+        List<ChatMessage> history = conversation(3);
+        history.add(ChatMessage.userMessage(repeat('x', 4000)));
+
+        GeminiContextWindow.Window window = new GeminiContextWindow(50).build(history, "Planning Fes", 0);
+
+        assertEquals(3, window.firstTurn);
+        assertTrue(window.estimatedTokens > 50);
+        assertEquals(3, window.contents.size());
+        assertEquals(history.get(3).getContent(), text(window.contents.get(2)));
+    }
+
+    @Test
+    public void build_startsOnAUserTurn() {
+        List<ChatMessage> history = conversation(11);
+
+        // Room for turns 9 (model) and 10 (user); a window may not open on the model's answer
+        GeminiContextWindow.Window window = new GeminiContextWindow(2 * TURN_TOKENS).build(history, null, 0);
+
+        assertEquals(10, window.firstTurn);
+        assertEquals(TURN_TOKENS, window.estimatedTokens);
+        assertEquals(Collections.singletonList("user"), roles(window));
+    }
+
+    @Test
+    public void build_summaryPairComesFirstAndRolesAlternate() {
+        List<ChatMessage> history = conversation(11);
+        String summary = "Two nights in Fes, budget 300 EUR";
+
+        GeminiContextWindow.Window window = new GeminiContextWindow(1000).build(history, summary, 4);
+
+        List<String> roles = roles(window);
+        assertEquals("user", roles.get(0));
+        assertEquals("model", roles.get(1));
+        assertTrue(text(window.contents.get(0)).endsWith(summary));
+        assertEquals("user", roles.get(2));
+        for (int i = 1; i < roles.size(); i++) {
+            assertNotEquals("roles must alternate at " + i, roles.get(i - 1), roles.get(i));
+        }
+        assertEquals(sentTokens(window), window.estimatedTokens);
+    }
+
+    @Test
+    public void build_neverResendsSummarizedTurns() {
+        List<ChatMessage> history = conversation(11);
+
+        GeminiContextWindow.Window window = new GeminiContextWindow(1000).build(history, "summary", 6);
+
+        assertEquals(6, window.firstTurn);
+        assertEquals(2 + 5, window.contents.size());
+    }
+
+    @Test
+    public void build_floorStopsAtTheNewestTurn() {
+        List<ChatMessage> history = conversation(5);
+
+        // The summary claims more turns than exist; the newest is still sent
+        GeminiContextWindow.Window window = new GeminiContextWindow(1000).build(history, "summary", 9);
+
+        assertEquals(4, window.firstTurn);
+        assertEquals(3, window.contents.size());
+    }
+
+    @Test
+    public void build_ignoresSummarizedTurnsWithoutASummary() {
+        List<ChatMessage> history = conversation(5);
+
+        GeminiContextWindow.Window window = new GeminiContextWindow(1000).build(history, null, 4);
+
+        assertEquals(0, window.firstTurn);
+        assertEquals(5, window.contents.size());
+    }
+
+    /**
+     * Alternating turns starting and ending with the user when {@code turns} is odd.
+     */
+    private static List<ChatMessage> conversation(int turns) {
+        List<ChatMessage> history = new ArrayList<>();
+        for (int i = 0; i < turns; i++) {
+            String text = TURN_TEXT.substring(0, TURN_TEXT.length() - 2) + String.format("%02d", i);
+            history.add(i % 2 == 0 ? ChatMessage.userMessage(text) : ChatMessage.assistantMessage(text));
+        }
+        return history;
+    }
+
+    private static int sentTokens(GeminiContextWindow.Window window) {
+        int tokens = 0;
+        for (GeminiModels.Content content : window.contents) {
+            tokens += GeminiContextWindow.estimateTokens(text(content));
+        }
+        return tokens;
+    }
+
+    private static List<String> roles(GeminiContextWindow.Window window) {
+        List<String> roles = new ArrayList<>();
+        for (GeminiModels.Content content : window.contents) {
+            roles.add(content.getRole());
+        }
+        return roles;
+    }
+
+    private static String text(GeminiModels.Content content) {
+        return content.getParts().get(0).getText();
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}